@@ -23,7 +23,11 @@ public class CanvasAuthenticationProvider implements AuthenticationProvider {
     @Value("${canvas.instance.url}")
     private String canvasInstanceUrl;
 
-    private final RestTemplate restTemplate = new RestTemplate();
+    private final RestTemplate restTemplate;
+
+    public CanvasAuthenticationProvider(RestTemplate canvasRestTemplate) {
+        this.restTemplate = canvasRestTemplate;
+    }
 
     @Override
     public Authentication authenticate(Authentication authentication) throws AuthenticationException {
@@ -0,0 +1,72 @@
+package com.bestprograteam.canvas_dashboard.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutorService;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Executors for Canvas I/O.
+ * canvas.executor.mode=platform uses fixed pools of platform threads;
+ * canvas.executor.mode=virtual runs every Canvas fetch on its own virtual thread (JDK 21+),
+ * so concurrency is bounded by the Canvas rate limiter instead of by pool size.
+ * There is one executor per fan-out level (dashboard fetches, page prefetch) so a level
+ * never waits on tasks queued behind itself.
+ */
+@Configuration
+public class CanvasExecutorConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(CanvasExecutorConfig.class);
+
+    @Value("${canvas.executor.mode:platform}")
+    private String mode;
+
+    @Value("${canvas.executor.platform-threads:20}")
+    private int platformThreads;
+
+    @Value("${canvas.pagination.prefetch-threads:8}")
+    private int prefetchThreads;
+
+    /**
+     * Dashboard fan-out; propagates the SecurityContext so adapters can read the user's token.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService canvasExecutor() {
+        return new DelegatingSecurityContextExecutorService(create(platformThreads));
+    }
+
+    /**
+     * Concurrent page prefetch inside CanvasPaginator (token is passed explicitly).
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService canvasPrefetchExecutor() {
+        return create(prefetchThreads);
+    }
+
+    private ExecutorService create(int platformPoolSize) {
+        if ("virtual".equalsIgnoreCase(mode)) {
+            ExecutorService virtual = newVirtualThreadPerTaskExecutor();
+            if (virtual != null) {
+                return virtual;
+            }
+            log.warn("Virtual threads need JDK 21+, falling back to {} platform threads", platformPoolSize);
+        }
+        return Executors.newFixedThreadPool(platformPoolSize);
+    }
+
+    /**
+     * Looked up reflectively so the project still compiles for Java 17.
+     */
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
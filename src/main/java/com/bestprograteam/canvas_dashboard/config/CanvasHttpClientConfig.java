@@ -0,0 +1,85 @@
+package com.bestprograteam.canvas_dashboard.config;
+
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Shared HTTP client for every Canvas API call.
+ * All adapters and the authentication provider reuse one keep-alive connection pool,
+ * so TLS handshakes happen once per pooled connection instead of once per request.
+ * Every call goes to the one Canvas host, so the per-route limit caps requests in flight.
+ * In virtual-thread mode it is raised to canvas.http.virtual-max-connections-per-route,
+ * leaving the per-token rate limiter as the real bound.
+ */
+@Configuration
+public class CanvasHttpClientConfig {
+
+    @Value("${canvas.http.max-connections:50}")
+    private int maxConnections;
+
+    @Value("${canvas.http.max-connections-per-route:20}")
+    private int maxConnectionsPerRoute;
+
+    @Value("${canvas.http.virtual-max-connections-per-route:200}")
+    private int virtualMaxConnectionsPerRoute;
+
+    @Value("${canvas.executor.mode:platform}")
+    private String executorMode;
+
+    @Value("${canvas.http.connect-timeout-ms:10000}")
+    private long connectTimeoutMs;
+
+    @Value("${canvas.http.read-timeout-ms:10000}")
+    private long readTimeoutMs;
+
+    @Value("${canvas.http.idle-eviction-seconds:30}")
+    private long idleEvictionSeconds;
+
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager canvasConnectionManager() {
+        ConnectionConfig connectionConfig = ConnectionConfig.custom()
+                .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                .setSocketTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                .setValidateAfterInactivity(TimeValue.ofSeconds(10))
+                .setTimeToLive(TimeValue.ofMinutes(5))
+                .build();
+
+        int perRoute = maxConnectionsPerRoute;
+        if ("virtual".equalsIgnoreCase(executorMode)) {
+            // Otherwise extra virtual threads only queue for one of a handful of connections
+            perRoute = Math.max(perRoute, virtualMaxConnectionsPerRoute);
+        }
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(Math.max(maxConnections, perRoute))
+                .setMaxConnPerRoute(perRoute)
+                .setDefaultConnectionConfig(connectionConfig)
+                .build();
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient canvasHttpClient(PoolingHttpClientConnectionManager canvasConnectionManager) {
+        return HttpClients.custom()
+                .setConnectionManager(canvasConnectionManager)
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofSeconds(idleEvictionSeconds))
+                .build();
+    }
+
+    @Bean
+    public RestTemplate canvasRestTemplate(RestTemplateBuilder builder, CloseableHttpClient canvasHttpClient) {
+        return builder
+                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(canvasHttpClient))
+                .build();
+    }
+}
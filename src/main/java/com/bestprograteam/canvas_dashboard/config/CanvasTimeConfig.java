@@ -0,0 +1,22 @@
+package com.bestprograteam.canvas_dashboard.config;
+
+import com.bestprograteam.canvas_dashboard.model.adapters.CanvasTimestamps;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.ZoneId;
+
+/**
+ * Applies canvas.timezone to the decoders; Canvas sends UTC and the dashboard shows
+ * due and graded dates in this zone. Blank keeps the JVM default zone.
+ * Startup fails if a different zone was already fixed.
+ */
+@Configuration
+public class CanvasTimeConfig {
+
+    public CanvasTimeConfig(@Value("${canvas.timezone:}") String timezone) {
+        if (timezone != null && !timezone.isBlank()) {
+            CanvasTimestamps.fixZone(ZoneId.of(timezone.trim()));
+        }
+    }
+}
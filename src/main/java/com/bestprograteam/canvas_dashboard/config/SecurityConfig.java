@@ -1,5 +1,8 @@
 package com.bestprograteam.canvas_dashboard.config;
 
+import com.bestprograteam.canvas_dashboard.model.adapters.cache.RepositoryCache;
+import com.bestprograteam.canvas_dashboard.model.services.RegressionStateStore;
+import com.bestprograteam.canvas_dashboard.model.services.WhatIfService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -15,6 +18,15 @@ public class SecurityConfig {
     @Autowired
     private CanvasAuthenticationProvider canvasAuthenticationProvider;
 
+    @Autowired
+    private RepositoryCache repositoryCache;
+
+    @Autowired
+    private RegressionStateStore regressionStateStore;
+
+    @Autowired
+    private WhatIfService whatIfService;
+
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http
@@ -32,6 +44,14 @@ public class SecurityConfig {
             .logout(logout -> logout
                 .logoutUrl("/logout")
                 .logoutSuccessUrl("/login?logout=true")
+                .addLogoutHandler((request, response, authentication) -> {
+                    // Drop cached Canvas data, grade history and what-ifs so the next login starts fresh
+                    if (authentication != null) {
+                        repositoryCache.invalidateUser(authentication.getName());
+                        regressionStateStore.invalidateUser(authentication.getName());
+                        whatIfService.invalidateUser(authentication.getName());
+                    }
+                })
                 .invalidateHttpSession(true)
                 .clearAuthentication(true)
             )
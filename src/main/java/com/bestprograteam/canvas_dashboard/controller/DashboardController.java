@@ -2,13 +2,19 @@ package com.bestprograteam.canvas_dashboard.controller;
 
 import com.bestprograteam.canvas_dashboard.model.dto.DashboardData;
 import com.bestprograteam.canvas_dashboard.model.dto.PredictionData;
+import com.bestprograteam.canvas_dashboard.model.dto.WhatIfResult;
 import com.bestprograteam.canvas_dashboard.model.services.DashboardService;
 import com.bestprograteam.canvas_dashboard.model.services.PredictionService;
+import com.bestprograteam.canvas_dashboard.model.services.WhatIfService;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
 
 import java.util.Map;
 
@@ -17,10 +23,13 @@ public class DashboardController {
 
     private final DashboardService dashboardService;
     private final PredictionService predictionService;
+    private final WhatIfService whatIfService;
 
-    public DashboardController(DashboardService dashboardService, PredictionService predictionService) {
+    public DashboardController(DashboardService dashboardService, PredictionService predictionService,
+                               WhatIfService whatIfService) {
         this.dashboardService = dashboardService;
         this.predictionService = predictionService;
+        this.whatIfService = whatIfService;
     }
 
     @GetMapping("/")
@@ -45,6 +54,7 @@ public class DashboardController {
 
                 DashboardData dashboardData = dashboardService.getDashboardData();
                 model.addAttribute("dashboardData", dashboardData);
+                whatIfService.startSession(authentication.getName(), dashboardData);
 
                 PredictionData predictionData = predictionService.calculatePredictions(dashboardData);
                 model.addAttribute("predictionData", predictionData);
@@ -53,6 +63,23 @@ public class DashboardController {
         return "dashboard";
     }
 
+    /**
+     * What-if score for one assignment against the dashboard last loaded (no Canvas calls).
+     * Omitting score restores the assignment's real score.
+     */
+    @PostMapping("/dashboard/what-if")
+    @ResponseBody
+    public ResponseEntity<WhatIfResult> whatIf(@RequestParam String courseId,
+                                               @RequestParam int assignmentId,
+                                               @RequestParam(required = false) Double score) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return ResponseEntity.status(401).build();
+        }
+        WhatIfResult result = whatIfService.whatIf(authentication.getName(), courseId, assignmentId, score);
+        return result != null ? ResponseEntity.ok(result) : ResponseEntity.notFound().build();
+    }
+
     @GetMapping("/login")
     public String login() {
         return "login";
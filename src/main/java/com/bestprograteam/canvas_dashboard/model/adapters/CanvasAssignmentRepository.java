@@ -3,18 +3,10 @@ package com.bestprograteam.canvas_dashboard.model.adapters;
 import com.bestprograteam.canvas_dashboard.model.entities.Assignment;
 import com.bestprograteam.canvas_dashboard.model.repositories.AssignmentRepository;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
-import org.springframework.context.annotation.Primary;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpMethod;
-import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Repository;
-import org.springframework.web.client.RestTemplate;
 
-import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
@@ -22,20 +14,16 @@ import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
-@Primary
 @Repository("canvasAssignmentRepository")
 public class CanvasAssignmentRepository implements AssignmentRepository {
 
     @Value("${canvas.instance.url}")
     private String canvasInstanceUrl;
 
-    private final RestTemplate restTemplate;
+    private final CanvasPaginator paginator;
 
-    public CanvasAssignmentRepository() {
-        this.restTemplate = new RestTemplateBuilder()
-                .connectTimeout(Duration.ofSeconds(10))
-                .readTimeout(Duration.ofSeconds(10))
-                .build();
+    public CanvasAssignmentRepository(CanvasPaginator paginator) {
+        this.paginator = paginator;
     }
 
     private String getApiToken() {
@@ -55,31 +43,14 @@ public class CanvasAssignmentRepository implements AssignmentRepository {
         try {
             System.out.println("[CanvasAssignmentRepository] Fetching assignments for course " + courseId + "...");
             String apiToken = getApiToken();
-            HttpHeaders headers = new HttpHeaders();
-            headers.set("Authorization", "Bearer " + apiToken);
-            HttpEntity<String> entity = new HttpEntity<>(headers);
-
-            ResponseEntity<List> response = restTemplate.exchange(
+            List<Assignment> assignments = paginator.stream(
                     canvasInstanceUrl + "/api/v1/courses/" + courseId + "/assignments?per_page=100",
-                    HttpMethod.GET,
-                    entity,
-                    List.class
-            );
-            System.out.println("[CanvasAssignmentRepository] Successfully fetched " + (response.getBody() != null ? response.getBody().size() : 0) + " assignments for course " + courseId);
-
-            if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
-                List<Map<String, Object>> assignmentsData = response.getBody();
-                List<Assignment> assignments = new ArrayList<>();
+                    apiToken,
+                    CanvasJsonDecoders.assignment(courseId)
+            ).collect(Collectors.toList());
+            System.out.println("[CanvasAssignmentRepository] Successfully fetched " + assignments.size() + " assignments for course " + courseId);
 
-                for (Map<String, Object> data : assignmentsData) {
-                    Assignment assignment = mapToAssignment(data, courseId);
-                    if (assignment != null) {
-                        assignments.add(assignment);
-                    }
-                }
-
-                return assignments;
-            }
+            return assignments;
         } catch (Exception e) {
             System.err.println("[CanvasAssignmentRepository] ERROR fetching assignments for course " + courseId + ": " + e.getMessage());
             e.printStackTrace();
@@ -87,6 +58,32 @@ public class CanvasAssignmentRepository implements AssignmentRepository {
         return new ArrayList<>();
     }
 
+    /**
+     * One request for assignments and submissions; the description HTML (the bulk of the
+     * payload) is left out since the dashboard never shows it.
+     */
+    @Override
+    public List<Assignment> findAssignmentsWithSubmissions(Integer courseId) {
+        try {
+            System.out.println("[CanvasAssignmentRepository] Fetching assignments with submissions for course " + courseId + "...");
+            String apiToken = getApiToken();
+            List<Assignment> assignments = paginator.stream(
+                    canvasInstanceUrl + "/api/v1/courses/" + courseId + "/assignments"
+                            + "?include%5B%5D=submission&exclude_response_fields%5B%5D=description"
+                            + "&exclude_response_fields%5B%5D=rubric&per_page=100",
+                    apiToken,
+                    CanvasJsonDecoders.assignment(courseId)
+            ).collect(Collectors.toList());
+            System.out.println("[CanvasAssignmentRepository] Successfully fetched " + assignments.size() + " assignments with submissions for course " + courseId);
+
+            return assignments;
+        } catch (Exception e) {
+            System.err.println("[CanvasAssignmentRepository] ERROR fetching assignments with submissions for course " + courseId + ": " + e.getMessage());
+            e.printStackTrace();
+        }
+        return new ArrayList<>();
+    }
+
     @Override
     public Assignment findAssignmentById(Integer courseId, Integer assignmentId) {
         List<Assignment> assignments = findAssignmentsByCourseId(courseId);
@@ -99,7 +96,7 @@ public class CanvasAssignmentRepository implements AssignmentRepository {
     @Override
     public List<Assignment> findUpcomingAssignments(Integer courseId, Integer days) {
         List<Assignment> assignments = findAssignmentsByCourseId(courseId);
-        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime now = CanvasTimestamps.now();
         LocalDateTime future = now.plusDays(days);
 
         return assignments.stream()
@@ -107,37 +104,4 @@ public class CanvasAssignmentRepository implements AssignmentRepository {
                 .filter(a -> a.dueAt.isAfter(now) && a.dueAt.isBefore(future))
                 .collect(Collectors.toList());
     }
-
-    private Assignment mapToAssignment(Map<String, Object> data, Integer courseId) {
-        try {
-            Integer id = (Integer) data.get("id");
-            String name = (String) data.get("name");
-            String dueAtStr = (String) data.get("due_at");
-
-            LocalDateTime dueAt = null;
-            if (dueAtStr != null) {
-                try {
-                    dueAt = LocalDateTime.parse(dueAtStr.substring(0, 19));
-                } catch (Exception e) {
-                }
-            }
-
-            Double pointsPossible = getDouble(data.get("points_possible"));
-            Integer assignmentGroupId = (Integer) data.get("assignment_group_id");
-            String workflowState = (String) data.get("workflow_state");
-
-            return new Assignment(id, courseId, name, dueAt, pointsPossible,
-                    assignmentGroupId, workflowState);
-        } catch (Exception e) {
-            System.err.println("Error mapping assignment: " + e.getMessage());
-            return null;
-        }
-    }
-
-    private Double getDouble(Object value) {
-        if (value == null) return null;
-        if (value instanceof Double) return (Double) value;
-        if (value instanceof Integer) return ((Integer) value).doubleValue();
-        return null;
-    }
 }
@@ -0,0 +1,403 @@
+package com.bestprograteam.canvas_dashboard.model.adapters;
+
+import com.bestprograteam.canvas_dashboard.model.entities.Assignment;
+import com.bestprograteam.canvas_dashboard.model.entities.AssignmentGroup;
+import com.bestprograteam.canvas_dashboard.model.entities.Course;
+import com.bestprograteam.canvas_dashboard.model.entities.Enrollment;
+import com.bestprograteam.canvas_dashboard.model.entities.Submission;
+import com.bestprograteam.canvas_dashboard.model.repositories.DashboardBulkLoader;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Loads the whole dashboard graph from Canvas' /api/graphql endpoint: one query returns the user's
+ * current enrollments (active, in available courses; filtered by Canvas, like enrollment_state=active
+ * in REST) with each course's assignment groups, assignments and submissions nested in it, so
+ * concluded and inactive courses are never expanded. Only student enrollments are kept, as in
+ * the REST decoder; courses the user teaches or observes are skipped.
+ * Connections with more than one page are completed with follow-up queries for just that
+ * connection of that course, so a typical dashboard takes a single round trip instead of 2 + 3×N.
+ * A connection's pages follow each other (each needs the previous cursor), but different
+ * connections are completed concurrently on the prefetch executor.
+ * The query selects only the fields the dashboard reads, so the response is read as a tree.
+ * Requests run inside the per-token budget of {@link CanvasRateLimiter}.
+ */
+@Component
+@ConditionalOnProperty(name = "canvas.loader", havingValue = "graphql")
+public class CanvasGraphQLLoader implements DashboardBulkLoader {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private static final String STUDENT_ENROLLMENT = "StudentEnrollment";
+
+    private static final String PAGE_INFO = "pageInfo { hasNextPage endCursor }";
+    private static final String ASSIGNMENT_GROUPS = "assignmentGroupsConnection";
+    private static final String ASSIGNMENTS = "assignmentsConnection";
+    private static final String SUBMISSIONS = "submissionsConnection";
+
+    private static final Map<String, String> CONNECTION_FIELDS = Map.of(
+            ASSIGNMENT_GROUPS, "_id name position groupWeight",
+            ASSIGNMENTS, "_id name dueAt pointsPossible assignmentGroupId state",
+            SUBMISSIONS, "assignmentId score state gradedAt late");
+
+    private static final String DASHBOARD_QUERY = """
+            query DashboardCourses($userId: ID!, $first: Int!) {
+              legacyNode(_id: $userId, type: User) {
+                ... on User {
+                  enrollments(currentOnly: true) {
+                    type state lastActivityAt totalActivityTime grades { currentScore finalScore currentGrade }
+                    course {
+                      _id name courseCode state
+                      %s
+                      %s
+                      %s
+                    }
+                  }
+                }
+              }
+            }
+            """.formatted(connection(ASSIGNMENT_GROUPS, "first: $first"),
+                          connection(ASSIGNMENTS, "first: $first"),
+                          connection(SUBMISSIONS, "first: $first"));
+
+    private final String canvasInstanceUrl;
+    private final RestTemplate restTemplate;
+    private final CanvasRateLimiter rateLimiter;
+    private final ExecutorService prefetchExecutor;
+    private final int pageSize;
+    private final int maxRetries;
+
+    public CanvasGraphQLLoader(@Value("${canvas.instance.url}") String canvasInstanceUrl,
+                               RestTemplate canvasRestTemplate,
+                               CanvasRateLimiter rateLimiter,
+                               @Qualifier("canvasPrefetchExecutor") ExecutorService prefetchExecutor,
+                               @Value("${canvas.graphql.page-size:100}") int pageSize,
+                               @Value("${canvas.rate-limit.max-retries:3}") int maxRetries) {
+        this.canvasInstanceUrl = canvasInstanceUrl;
+        this.restTemplate = canvasRestTemplate;
+        this.rateLimiter = rateLimiter;
+        this.prefetchExecutor = prefetchExecutor;
+        this.pageSize = pageSize;
+        this.maxRetries = maxRetries;
+    }
+
+    private String getApiToken() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()) {
+            Object details = authentication.getDetails();
+            if (details instanceof Map) {
+                Map<String, Object> userDetails = (Map<String, Object>) details;
+                return (String) userDetails.get("apiToken");
+            }
+        }
+        return null;
+    }
+
+    private static String getUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated() ? authentication.getName() : null;
+    }
+
+    /**
+     * Errors are thrown (not swallowed into an empty list) so the caller can fall back to REST.
+     */
+    @Override
+    public List<CourseBundle> loadActiveCourses() {
+        System.out.println("[CanvasGraphQLLoader] Fetching dashboard graph from Canvas GraphQL...");
+        String apiToken = getApiToken();
+        ObjectNode variables = JSON.createObjectNode();
+        variables.put("userId", getUserId());
+        variables.put("first", pageSize);
+        JsonNode enrollments = query(DASHBOARD_QUERY, variables, apiToken).path("legacyNode").path("enrollments");
+
+        List<CourseBundle> bundles = new ArrayList<>();
+        Set<String> seenCourseIds = new HashSet<>();
+        List<CompletableFuture<Integer>> followUps = new ArrayList<>();
+        for (JsonNode enrollmentNode : enrollments) {
+            JsonNode node = enrollmentNode.path("course");
+            Course course = readCourse(node);
+            Enrollment enrollment = course != null && STUDENT_ENROLLMENT.equals(text(enrollmentNode, "type"))
+                    ? readEnrollment(enrollmentNode, course.id) : null;
+            if (enrollment == null || !"active".equals(enrollment.enrollmentState) || !seenCourseIds.add(course.id)) {
+                continue; // Not a student, not active, or a second enrollment (e.g. another section) in the same course
+            }
+            course.enrollment = enrollment;
+            Integer courseId = enrollment.courseId;
+
+            List<AssignmentGroup> groups = new ArrayList<>();
+            readConnection(node, ASSIGNMENT_GROUPS, course.id, apiToken, groups, n -> readAssignmentGroup(n, courseId), followUps);
+            List<Assignment> assignments = new ArrayList<>();
+            readConnection(node, ASSIGNMENTS, course.id, apiToken, assignments, n -> readAssignment(n, courseId), followUps);
+            List<Submission> submissions = new ArrayList<>();
+            readConnection(node, SUBMISSIONS, course.id, apiToken, submissions, CanvasGraphQLLoader::readSubmission, followUps);
+
+            bundles.add(new CourseBundle(course, enrollment, assignments, submissions, groups));
+        }
+
+        int requests = 1;
+        for (CompletableFuture<Integer> followUp : followUps) {
+            try {
+                requests += followUp.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+        System.out.println("[CanvasGraphQLLoader] Successfully fetched " + bundles.size() + " courses in "
+                + requests + " request(s)");
+        return bundles;
+    }
+
+    /**
+     * Decodes the first page of one connection; if there are more, schedules fetching them
+     * (appended to {@code into}, which must not be read before the scheduled future completes).
+     */
+    private <T> void readConnection(JsonNode courseNode, String connection, String courseId, String apiToken,
+                                    List<T> into, Function<JsonNode, T> decoder,
+                                    List<CompletableFuture<Integer>> followUps) {
+        String cursor = decodePage(courseNode.path(connection), into, decoder);
+        if (cursor != null) {
+            followUps.add(CompletableFuture.supplyAsync(
+                    () -> readRemainingPages(connection, courseId, cursor, apiToken, into, decoder), prefetchExecutor));
+        }
+    }
+
+    /**
+     * Fetches the remaining pages of one connection, one after another.
+     * @return number of follow-up requests made
+     */
+    private <T> int readRemainingPages(String connection, String courseId, String cursor, String apiToken,
+                                       List<T> into, Function<JsonNode, T> decoder) {
+        int requests = 0;
+        while (cursor != null) {
+            ObjectNode variables = JSON.createObjectNode();
+            variables.put("courseId", courseId);
+            variables.put("first", pageSize);
+            variables.put("after", cursor);
+            JsonNode page = query(followUpQuery(connection), variables, apiToken).path("course").path(connection);
+            requests++;
+            cursor = decodePage(page, into, decoder);
+        }
+        return requests;
+    }
+
+    /**
+     * Adds the page's decodable nodes to {@code into}.
+     * @return the cursor of the next page, or null when this is the last one
+     */
+    private static <T> String decodePage(JsonNode page, List<T> into, Function<JsonNode, T> decoder) {
+        for (JsonNode node : page.path("nodes")) {
+            T item = decoder.apply(node);
+            if (item != null) {
+                into.add(item);
+            }
+        }
+        JsonNode pageInfo = page.path("pageInfo");
+        if (!pageInfo.path("hasNextPage").asBoolean(false) || !pageInfo.path("endCursor").isTextual()) {
+            return null;
+        }
+        return pageInfo.path("endCursor").asText();
+    }
+
+    private static String followUpQuery(String connection) {
+        return "query MoreCourseData($courseId: ID!, $first: Int!, $after: String) {\n"
+                + "  course(id: $courseId) { " + connection(connection, "first: $first, after: $after") + " }\n"
+                + "}\n";
+    }
+
+    private static String connection(String name, String arguments) {
+        return name + "(" + arguments + ") { nodes { " + CONNECTION_FIELDS.get(name) + " } " + PAGE_INFO + " }";
+    }
+
+    /**
+     * POSTs one query and returns its "data"; fails when Canvas returns errors and no data.
+     */
+    private JsonNode query(String query, ObjectNode variables, String apiToken) {
+        ObjectNode body = JSON.createObjectNode();
+        body.put("query", query);
+        body.set("variables", variables);
+
+        JsonNode response = scheduled(body, apiToken);
+        JsonNode data = response.path("data");
+        JsonNode errors = response.path("errors");
+        if (errors.isArray() && !errors.isEmpty()) {
+            if (data.isMissingNode() || data.isNull()) {
+                throw new IllegalStateException("Canvas GraphQL error: " + errors.get(0).path("message").asText());
+            }
+            System.err.println("[CanvasGraphQLLoader] Partial response: " + errors.get(0).path("message").asText());
+        }
+        return data;
+    }
+
+    /**
+     * Runs the POST inside the token's rate-limit budget, retrying 403 throttling with backoff.
+     */
+    private JsonNode scheduled(ObjectNode body, String apiToken) {
+        for (int attempt = 0; ; attempt++) {
+            try {
+                rateLimiter.acquire(apiToken);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for Canvas rate limit", e);
+            }
+
+            AtomicReference<HttpHeaders> responseHeaders = new AtomicReference<>();
+            try {
+                return restTemplate.execute(
+                        canvasInstanceUrl + "/api/graphql",
+                        HttpMethod.POST,
+                        request -> {
+                            request.getHeaders().set("Authorization", "Bearer " + apiToken);
+                            request.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+                            JSON.writeValue(request.getBody(), body);
+                        },
+                        response -> {
+                            responseHeaders.set(response.getHeaders());
+                            return JSON.readTree(response.getBody());
+                        });
+            } catch (HttpClientErrorException e) {
+                responseHeaders.set(e.getResponseHeaders());
+                if (attempt < maxRetries && CanvasRateLimiter.isRateLimited(
+                        e.getStatusCode().value(), e.getResponseHeaders(), e.getResponseBodyAsString())) {
+                    System.err.println("[CanvasGraphQLLoader] Rate limited by Canvas, retrying (attempt " + (attempt + 1) + ")");
+                    rateLimiter.throttled(apiToken, attempt);
+                    continue;
+                }
+                throw e;
+            } finally {
+                rateLimiter.release(apiToken, responseHeaders.get());
+            }
+        }
+    }
+
+    // --- Node decoders (same fields and leniency as CanvasJsonDecoders) ---
+
+    static Course readCourse(JsonNode node) {
+        String id = text(node, "_id");
+        if (id == null) {
+            return null;
+        }
+        Course course = new Course();
+        course.id = id;
+        course.name = text(node, "name");
+        course.code = text(node, "courseCode");
+        course.status = text(node, "state");
+        CanvasJsonDecoders.applyCourseDefaults(course);
+        return course;
+    }
+
+    static Enrollment readEnrollment(JsonNode node, String courseId) {
+        Integer id = parseInt(courseId);
+        if (id == null) {
+            return null;
+        }
+        Enrollment enrollment = new Enrollment();
+        enrollment.courseId = id;
+        enrollment.enrollmentState = text(node, "state");
+        enrollment.lastActivityAt = dateTime(node, "lastActivityAt");
+        enrollment.totalActivityTime = integer(node, "totalActivityTime");
+        JsonNode grades = node.path("grades");
+        enrollment.currentScore = decimal(grades, "currentScore");
+        enrollment.finalScore = decimal(grades, "finalScore");
+        enrollment.currentGrade = text(grades, "currentGrade");
+        return enrollment;
+    }
+
+    static AssignmentGroup readAssignmentGroup(JsonNode node, Integer courseId) {
+        AssignmentGroup group = new AssignmentGroup();
+        group.id = integer(node, "_id");
+        group.courseId = courseId;
+        group.name = text(node, "name");
+        group.position = integer(node, "position");
+        group.groupWeight = decimal(node, "groupWeight");
+        return group.id != null ? group : null;
+    }
+
+    static Assignment readAssignment(JsonNode node, Integer courseId) {
+        Assignment assignment = new Assignment();
+        assignment.id = integer(node, "_id");
+        assignment.courseId = courseId;
+        assignment.name = text(node, "name");
+        assignment.dueAt = dateTime(node, "dueAt");
+        assignment.pointsPossible = decimal(node, "pointsPossible");
+        assignment.assignmentGroupId = integer(node, "assignmentGroupId");
+        assignment.workflowState = text(node, "state");
+        return assignment.id != null ? assignment : null;
+    }
+
+    static Submission readSubmission(JsonNode node) {
+        Submission submission = new Submission();
+        submission.assignmentId = integer(node, "assignmentId");
+        submission.score = decimal(node, "score");
+        submission.workflowState = text(node, "state");
+        submission.gradedAt = dateTime(node, "gradedAt");
+        JsonNode late = node.path("late");
+        submission.late = late.isBoolean() ? late.booleanValue() : null;
+        return submission.assignmentId != null ? submission : null;
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.path(field);
+        return value.isTextual() || value.isNumber() ? value.asText() : null;
+    }
+
+    private static Integer integer(JsonNode node, String field) {
+        JsonNode value = node.path(field);
+        if (value.isIntegralNumber()) {
+            return value.intValue();
+        }
+        return value.isTextual() ? parseInt(value.textValue()) : null;
+    }
+
+    private static Double decimal(JsonNode node, String field) {
+        JsonNode value = node.path(field);
+        if (value.isNumber()) {
+            return value.doubleValue();
+        }
+        if (value.isTextual()) {
+            try {
+                return Double.parseDouble(value.textValue());
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    private static LocalDateTime dateTime(JsonNode node, String field) {
+        JsonNode value = node.path(field);
+        long epochMillis = value.isTextual() ? CanvasTimestamps.parseEpochMillis(value.textValue()) : CanvasTimestamps.INVALID;
+        return epochMillis != CanvasTimestamps.INVALID ? CanvasTimestamps.toLocalDateTime(epochMillis) : null;
+    }
+
+    private static Integer parseInt(String text) {
+        try {
+            return text != null ? Integer.parseInt(text) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
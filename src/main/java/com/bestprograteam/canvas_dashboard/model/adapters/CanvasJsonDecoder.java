@@ -0,0 +1,16 @@
+package com.bestprograteam.canvas_dashboard.model.adapters;
+
+import com.fasterxml.jackson.core.JsonParser;
+
+import java.io.IOException;
+
+/**
+ * Decodes one JSON object of a Canvas response straight into an entity.
+ * The parser is positioned on START_OBJECT and must be left on the matching END_OBJECT.
+ * Returning null skips the row.
+ */
+@FunctionalInterface
+public interface CanvasJsonDecoder<T> {
+
+    T decode(JsonParser parser) throws IOException;
+}
@@ -0,0 +1,369 @@
+package com.bestprograteam.canvas_dashboard.model.adapters;
+
+import com.bestprograteam.canvas_dashboard.model.entities.Assignment;
+import com.bestprograteam.canvas_dashboard.model.entities.AssignmentGroup;
+import com.bestprograteam.canvas_dashboard.model.entities.Course;
+import com.bestprograteam.canvas_dashboard.model.entities.Enrollment;
+import com.bestprograteam.canvas_dashboard.model.entities.Submission;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Date;
+
+/**
+ * Token-level decoders for Canvas entities.
+ * Only the fields the dashboard reads are materialized; everything else
+ * (e.g. assignment description HTML, rubrics) is skipped without being decoded.
+ * Rows without their key (course/assignment/group id, enrollment course_id, submission
+ * assignment_id) decode to null and are dropped by the paginator. The old map-based adapters
+ * kept them, but every caller then failed on them (parseInt("null"), NPE in id lookups).
+ */
+public final class CanvasJsonDecoders {
+
+    private CanvasJsonDecoders() {}
+
+    public static CanvasJsonDecoder<Course> course() {
+        return CanvasJsonDecoders::readCourse;
+    }
+
+    public static CanvasJsonDecoder<Enrollment> enrollment() {
+        return CanvasJsonDecoders::readEnrollment;
+    }
+
+    public static CanvasJsonDecoder<Assignment> assignment(Integer courseId) {
+        return parser -> readAssignment(parser, courseId);
+    }
+
+    public static CanvasJsonDecoder<Submission> submission() {
+        return CanvasJsonDecoders::readSubmission;
+    }
+
+    public static CanvasJsonDecoder<AssignmentGroup> assignmentGroup(Integer courseId) {
+        return parser -> readAssignmentGroup(parser, courseId);
+    }
+
+    public static CanvasJsonDecoder<Assignment> plannerItem() {
+        return CanvasJsonDecoders::readPlannerItem;
+    }
+
+    static Course readCourse(JsonParser p) throws IOException {
+        Course course = new Course();
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            p.nextToken();
+            switch (field) {
+                case "id" -> course.id = readText(p);
+                case "name" -> course.name = readText(p);
+                case "course_code" -> course.code = readText(p);
+                case "workflow_state" -> course.status = readText(p);
+                case "enrollments" -> course.enrollment = readCourseEnrollments(p);
+                default -> p.skipChildren();
+            }
+        }
+        if (course.id == null) {
+            return null;
+        }
+        if (course.enrollment != null) {
+            try {
+                course.enrollment.courseId = Integer.parseInt(course.id);
+            } catch (NumberFormatException e) {
+                course.enrollment = null;
+            }
+        }
+        applyCourseDefaults(course);
+        return course;
+    }
+
+    /**
+     * Fields the dashboard expects on every course but Canvas does not send.
+     */
+    static void applyCourseDefaults(Course course) {
+        course.enrollmentType = "StudentEnrollment";
+        course.startDate = new Date(System.currentTimeMillis() - 90L * 24 * 60 * 60 * 1000);
+        course.endDate = new Date(System.currentTimeMillis() + 90L * 24 * 60 * 60 * 1000);
+    }
+
+    /**
+     * The student enrollment among a course's inline enrollments (include[]=total_scores).
+     * With grading periods, the current period's scores are used, like the enrollments API does.
+     */
+    private static Enrollment readCourseEnrollments(JsonParser p) throws IOException {
+        if (p.currentToken() != JsonToken.START_ARRAY) {
+            p.skipChildren();
+            return null;
+        }
+        Enrollment student = null;
+        while (p.nextToken() == JsonToken.START_OBJECT) {
+            Enrollment enrollment = new Enrollment();
+            String type = null;
+            boolean gradingPeriods = false;
+            Double periodCurrentScore = null;
+            Double periodFinalScore = null;
+            String periodCurrentGrade = null;
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String field = p.currentName();
+                p.nextToken();
+                switch (field) {
+                    case "type" -> type = readText(p);
+                    case "enrollment_state" -> enrollment.enrollmentState = readText(p);
+                    case "computed_current_score" -> enrollment.currentScore = readDouble(p);
+                    case "computed_final_score" -> enrollment.finalScore = readDouble(p);
+                    case "computed_current_grade" -> enrollment.currentGrade = readText(p);
+                    case "multiple_grading_periods_enabled" -> gradingPeriods = Boolean.TRUE.equals(readBoolean(p));
+                    case "current_period_computed_current_score" -> periodCurrentScore = readDouble(p);
+                    case "current_period_computed_final_score" -> periodFinalScore = readDouble(p);
+                    case "current_period_computed_current_grade" -> periodCurrentGrade = readText(p);
+                    default -> p.skipChildren();
+                }
+            }
+            if (student == null && ("student".equals(type) || "StudentEnrollment".equals(type))) {
+                if (gradingPeriods) {
+                    enrollment.currentScore = periodCurrentScore;
+                    enrollment.finalScore = periodFinalScore;
+                    enrollment.currentGrade = periodCurrentGrade;
+                }
+                student = enrollment;
+            }
+        }
+        return student;
+    }
+
+    static Enrollment readEnrollment(JsonParser p) throws IOException {
+        Enrollment enrollment = new Enrollment();
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            p.nextToken();
+            switch (field) {
+                case "course_id" -> enrollment.courseId = readInt(p);
+                case "enrollment_state" -> enrollment.enrollmentState = readText(p);
+                case "last_activity_at" -> enrollment.lastActivityAt = readDateTime(p);
+                case "total_activity_time" -> enrollment.totalActivityTime = readInt(p);
+                case "grades" -> readGrades(p, enrollment);
+                default -> p.skipChildren();
+            }
+        }
+        return enrollment.courseId != null ? enrollment : null;
+    }
+
+    private static void readGrades(JsonParser p, Enrollment enrollment) throws IOException {
+        if (p.currentToken() != JsonToken.START_OBJECT) {
+            p.skipChildren();
+            return;
+        }
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            p.nextToken();
+            switch (field) {
+                case "current_score" -> enrollment.currentScore = readDouble(p);
+                case "final_score" -> enrollment.finalScore = readDouble(p);
+                case "current_grade" -> enrollment.currentGrade = readText(p);
+                default -> p.skipChildren();
+            }
+        }
+    }
+
+    static Assignment readAssignment(JsonParser p, Integer courseId) throws IOException {
+        Assignment assignment = new Assignment();
+        assignment.courseId = courseId;
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            p.nextToken();
+            switch (field) {
+                case "id" -> assignment.id = readInt(p);
+                case "name" -> assignment.name = readText(p);
+                case "due_at" -> assignment.dueAt = readDateTime(p);
+                case "points_possible" -> assignment.pointsPossible = readDouble(p);
+                case "assignment_group_id" -> assignment.assignmentGroupId = readInt(p);
+                case "workflow_state" -> assignment.workflowState = readText(p);
+                case "submission" -> assignment.submission = readEmbeddedSubmission(p);
+                default -> p.skipChildren();
+            }
+        }
+        if (assignment.submission != null && assignment.submission.assignmentId == null) {
+            assignment.submission.assignmentId = assignment.id;
+        }
+        return assignment.id != null ? assignment : null;
+    }
+
+    static Submission readSubmission(JsonParser p) throws IOException {
+        Submission submission = readSubmissionFields(p);
+        return submission.assignmentId != null ? submission : null;
+    }
+
+    /**
+     * Submission nested in an assignment (include[]=submission); may omit assignment_id.
+     */
+    private static Submission readEmbeddedSubmission(JsonParser p) throws IOException {
+        if (p.currentToken() != JsonToken.START_OBJECT) {
+            p.skipChildren();
+            return null;
+        }
+        return readSubmissionFields(p);
+    }
+
+    private static Submission readSubmissionFields(JsonParser p) throws IOException {
+        Submission submission = new Submission();
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            p.nextToken();
+            switch (field) {
+                case "assignment_id" -> submission.assignmentId = readInt(p);
+                case "course_id" -> submission.courseId = readInt(p);
+                case "score" -> submission.score = readDouble(p);
+                case "workflow_state" -> submission.workflowState = readText(p);
+                case "graded_at" -> submission.gradedAt = readDateTime(p);
+                case "late" -> submission.late = readBoolean(p);
+                default -> p.skipChildren();
+            }
+        }
+        return submission;
+    }
+
+    /**
+     * A planner item as the assignment it stands for. Graded quizzes and discussions are keyed by
+     * their assignment id; items that are not gradable (notes, events, pages) decode to null.
+     */
+    static Assignment readPlannerItem(JsonParser p) throws IOException {
+        String type = null;
+        Integer plannableId = null;
+        Integer courseId = null;
+        LocalDateTime plannableDate = null;
+        Assignment plannable = null;
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            p.nextToken();
+            switch (field) {
+                case "plannable_type" -> type = readText(p);
+                case "plannable_id" -> plannableId = readInt(p);
+                case "course_id" -> courseId = readInt(p);
+                case "plannable_date" -> plannableDate = readDateTime(p);
+                case "plannable" -> plannable = readPlannable(p);
+                default -> p.skipChildren();
+            }
+        }
+        if (plannable == null || courseId == null
+                || !("assignment".equals(type) || "quiz".equals(type) || "discussion_topic".equals(type))) {
+            return null;
+        }
+        if ("assignment".equals(type)) {
+            plannable.id = plannableId;
+        }
+        plannable.courseId = courseId;
+        if (plannable.dueAt == null) {
+            plannable.dueAt = plannableDate;
+        }
+        return plannable.id != null ? plannable : null;
+    }
+
+    /**
+     * The planner's embedded object; id is its assignment_id (null for plain assignments and ungraded items).
+     */
+    private static Assignment readPlannable(JsonParser p) throws IOException {
+        if (p.currentToken() != JsonToken.START_OBJECT) {
+            p.skipChildren();
+            return null;
+        }
+        Assignment assignment = new Assignment();
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            p.nextToken();
+            switch (field) {
+                case "assignment_id" -> assignment.id = readInt(p);
+                case "title" -> assignment.name = readText(p);
+                case "name" -> {
+                    String name = readText(p);
+                    if (assignment.name == null) {
+                        assignment.name = name;
+                    }
+                }
+                case "due_at" -> assignment.dueAt = readDateTime(p);
+                case "points_possible" -> assignment.pointsPossible = readDouble(p);
+                case "assignment_group_id" -> assignment.assignmentGroupId = readInt(p);
+                case "workflow_state" -> assignment.workflowState = readText(p);
+                default -> p.skipChildren();
+            }
+        }
+        return assignment;
+    }
+
+    static AssignmentGroup readAssignmentGroup(JsonParser p, Integer courseId) throws IOException {
+        AssignmentGroup group = new AssignmentGroup();
+        group.courseId = courseId;
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            p.nextToken();
+            switch (field) {
+                case "id" -> group.id = readInt(p);
+                case "name" -> group.name = readText(p);
+                case "position" -> group.position = readInt(p);
+                case "group_weight" -> group.groupWeight = readDouble(p);
+                default -> p.skipChildren();
+            }
+        }
+        return group.id != null ? group : null;
+    }
+
+    // --- Scalar readers (lenient: wrong types decode to null like the old map casts) ---
+
+    static String readText(JsonParser p) throws IOException {
+        JsonToken token = p.currentToken();
+        if (token == JsonToken.VALUE_STRING || token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT) {
+            return p.getText();
+        }
+        p.skipChildren();
+        return null;
+    }
+
+    static Integer readInt(JsonParser p) throws IOException {
+        JsonToken token = p.currentToken();
+        if (token == JsonToken.VALUE_NUMBER_INT) {
+            return p.getIntValue();
+        }
+        if (token == JsonToken.VALUE_STRING) {
+            try {
+                return Integer.parseInt(p.getText());
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        p.skipChildren();
+        return null;
+    }
+
+    static Double readDouble(JsonParser p) throws IOException {
+        JsonToken token = p.currentToken();
+        if (token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT) {
+            return p.getDoubleValue();
+        }
+        if (token == JsonToken.VALUE_STRING) {
+            try {
+                return Double.parseDouble(p.getText());
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        p.skipChildren();
+        return null;
+    }
+
+    static Boolean readBoolean(JsonParser p) throws IOException {
+        JsonToken token = p.currentToken();
+        if (token == JsonToken.VALUE_TRUE) return Boolean.TRUE;
+        if (token == JsonToken.VALUE_FALSE) return Boolean.FALSE;
+        p.skipChildren();
+        return null;
+    }
+
+    static LocalDateTime readDateTime(JsonParser p) throws IOException {
+        if (p.currentToken() != JsonToken.VALUE_STRING) {
+            p.skipChildren();
+            return null;
+        }
+        // Decoded from the parser's buffer; no String is materialized for the value
+        long epochMillis = CanvasTimestamps.parseEpochMillis(
+                p.getTextCharacters(), p.getTextOffset(), p.getTextLength());
+        return epochMillis != CanvasTimestamps.INVALID ? CanvasTimestamps.toLocalDateTime(epochMillis) : null;
+    }
+}
@@ -0,0 +1,60 @@
+package com.bestprograteam.canvas_dashboard.model.adapters;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Parsed Canvas pagination "Link" header.
+ * Example: <https://x/api/v1/courses?page=2&per_page=100>; rel="next", <...?page=5&per_page=100>; rel="last"
+ */
+public class CanvasLinkHeader {
+
+    private static final Pattern LINK = Pattern.compile("<([^>]*)>\\s*;\\s*rel=\"?([^\",;]+)\"?");
+    private static final Pattern PAGE_PARAM = Pattern.compile("([?&]page=)(\\d+)(?=&|$)");
+
+    private final Map<String, String> links;
+
+    private CanvasLinkHeader(Map<String, String> links) {
+        this.links = links;
+    }
+
+    public static CanvasLinkHeader parse(String header) {
+        Map<String, String> links = new HashMap<>();
+        if (header != null) {
+            Matcher matcher = LINK.matcher(header);
+            while (matcher.find()) {
+                links.put(matcher.group(2).trim(), matcher.group(1));
+            }
+        }
+        return new CanvasLinkHeader(links);
+    }
+
+    public String next() {
+        return links.get("next");
+    }
+
+    public String last() {
+        return links.get("last");
+    }
+
+    /**
+     * Numeric page number of a link, or -1 when Canvas uses opaque bookmark pagination.
+     */
+    public static int pageNumber(String url) {
+        if (url == null) return -1;
+        Matcher matcher = PAGE_PARAM.matcher(url);
+        return matcher.find() ? Integer.parseInt(matcher.group(2)) : -1;
+    }
+
+    /**
+     * Same URL pointing at another numbered page.
+     */
+    public static String withPage(String url, int page) {
+        Matcher matcher = PAGE_PARAM.matcher(url);
+        return matcher.find()
+                ? url.substring(0, matcher.start()) + matcher.group(1) + page + url.substring(matcher.end())
+                : url;
+    }
+}
@@ -0,0 +1,194 @@
+package com.bestprograteam.canvas_dashboard.model.adapters;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Follows Canvas "Link" pagination for list endpoints.
+ * The first page is fetched eagerly. When rel="last" exposes a page count, the remaining
+ * pages are fetched concurrently; otherwise rel="next" is followed lazily as the stream is consumed.
+ * Every page request is conditional when validators from a previous response are known,
+ * and runs inside the per-token budget of {@link CanvasRateLimiter}.
+ */
+@Component
+public class CanvasPaginator {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final RestTemplate restTemplate;
+    private final ConditionalRequestCache conditionalRequests;
+    private final CanvasRateLimiter rateLimiter;
+    private final int maxRetries;
+    private final ExecutorService prefetchExecutor;
+    private final SingleFlight<RequestKey, Page<?>> inFlight = new SingleFlight<>();
+
+    public CanvasPaginator(RestTemplate canvasRestTemplate,
+                           ConditionalRequestCache conditionalRequests,
+                           CanvasRateLimiter rateLimiter,
+                           @Qualifier("canvasPrefetchExecutor") ExecutorService prefetchExecutor,
+                           @Value("${canvas.rate-limit.max-retries:3}") int maxRetries) {
+        this.restTemplate = canvasRestTemplate;
+        this.conditionalRequests = conditionalRequests;
+        this.rateLimiter = rateLimiter;
+        this.maxRetries = maxRetries;
+        this.prefetchExecutor = prefetchExecutor;
+    }
+
+    /**
+     * Lazy stream over every entity of a paginated Canvas list endpoint.
+     * @param url First page URL (including per_page)
+     * @param apiToken Canvas API token of the current user
+     * @param decoder Decodes one JSON object into an entity; null results are skipped
+     */
+    public <T> Stream<T> stream(String url, String apiToken, CanvasJsonDecoder<T> decoder) {
+        Page<T> first = fetchPage(url, apiToken, decoder);
+
+        int nextPage = CanvasLinkHeader.pageNumber(first.links().next());
+        int lastPage = CanvasLinkHeader.pageNumber(first.links().last());
+
+        if (nextPage > 0 && lastPage >= nextPage) {
+            // Page count is known: fetch pages next..last concurrently, consume them in order
+            String lastUrl = first.links().last();
+            List<CompletableFuture<Page<T>>> remaining = new ArrayList<>();
+            for (int page = nextPage; page <= lastPage; page++) {
+                String pageUrl = CanvasLinkHeader.withPage(lastUrl, page);
+                remaining.add(CompletableFuture.supplyAsync(() -> fetchPage(pageUrl, apiToken, decoder), prefetchExecutor));
+            }
+            return Stream.concat(first.items().stream(),
+                    remaining.stream().flatMap(future -> future.join().items().stream()));
+        }
+
+        Iterator<Page<T>> pages = new Iterator<>() {
+            private Page<T> current = first;
+            private boolean consumedFirst = false;
+
+            @Override
+            public boolean hasNext() {
+                return !consumedFirst || current.links().next() != null;
+            }
+
+            @Override
+            public Page<T> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                if (consumedFirst) {
+                    current = fetchPage(current.links().next(), apiToken, decoder);
+                }
+                consumedFirst = true;
+                return current;
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(pages, Spliterator.ORDERED), false)
+                .flatMap(page -> page.items().stream());
+    }
+
+    /**
+     * Identical (token, URL) requests already in flight share one response.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> Page<T> fetchPage(String url, String apiToken, CanvasJsonDecoder<T> decoder) {
+        return (Page<T>) inFlight.execute(new RequestKey(apiToken, url), () -> scheduled(url, apiToken, decoder));
+    }
+
+    /**
+     * Runs the exchange inside the token's rate-limit budget, retrying 403 throttling with backoff.
+     */
+    private <T> Page<T> scheduled(String url, String apiToken, CanvasJsonDecoder<T> decoder) {
+        for (int attempt = 0; ; attempt++) {
+            try {
+                rateLimiter.acquire(apiToken);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for Canvas rate limit", e);
+            }
+
+            AtomicReference<HttpHeaders> responseHeaders = new AtomicReference<>();
+            try {
+                return exchange(url, apiToken, decoder, responseHeaders);
+            } catch (HttpClientErrorException e) {
+                responseHeaders.set(e.getResponseHeaders());
+                if (attempt < maxRetries && CanvasRateLimiter.isRateLimited(
+                        e.getStatusCode().value(), e.getResponseHeaders(), e.getResponseBodyAsString())) {
+                    System.err.println("[CanvasPaginator] Rate limited by Canvas, retrying (attempt " + (attempt + 1) + ")");
+                    rateLimiter.throttled(apiToken, attempt);
+                    continue;
+                }
+                throw e;
+            } finally {
+                rateLimiter.release(apiToken, responseHeaders.get());
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Page<T> exchange(String url, String apiToken, CanvasJsonDecoder<T> decoder,
+                                 AtomicReference<HttpHeaders> responseHeaders) {
+        ConditionalRequestCache.Entry validated = conditionalRequests.get(apiToken, url);
+        return restTemplate.execute(
+                URI.create(url), // Already encoded (include%5B%5D=...); must not be expanded as a template
+                HttpMethod.GET,
+                request -> {
+                    HttpHeaders headers = request.getHeaders();
+                    headers.set("Authorization", "Bearer " + apiToken);
+                    if (validated != null) {
+                        if (validated.etag() != null) {
+                            headers.setIfNoneMatch(validated.etag());
+                        }
+                        if (validated.lastModified() != null) {
+                            headers.set(HttpHeaders.IF_MODIFIED_SINCE, validated.lastModified());
+                        }
+                    }
+                },
+                response -> {
+                    responseHeaders.set(response.getHeaders());
+                    if (response.getStatusCode().value() == 304 && validated != null) {
+                        // Not modified: reuse the entities decoded last time
+                        return (Page<T>) validated.page();
+                    }
+
+                    List<T> items = new ArrayList<>();
+                    try (JsonParser parser = JSON_FACTORY.createParser(response.getBody())) {
+                        if (parser.nextToken() == JsonToken.START_ARRAY) {
+                            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                                T item = decoder.decode(parser);
+                                if (item != null) {
+                                    items.add(item);
+                                }
+                            }
+                        }
+                    }
+                    Page<T> page = new Page<>(items.isEmpty() ? Collections.emptyList() : items,
+                            CanvasLinkHeader.parse(response.getHeaders().getFirst(HttpHeaders.LINK)));
+                    conditionalRequests.store(apiToken, url, response.getHeaders(), page);
+                    return page;
+                }
+        );
+    }
+
+    private record Page<T>(List<T> items, CanvasLinkHeader links) {}
+
+    private record RequestKey(String apiToken, String url) {}
+}
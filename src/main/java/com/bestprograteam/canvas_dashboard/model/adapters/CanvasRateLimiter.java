@@ -0,0 +1,163 @@
+package com.bestprograteam.canvas_dashboard.model.adapters;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Per-token scheduler for Canvas calls driven by the throttling headers Canvas returns.
+ * Canvas uses a leaky bucket per token and reports X-Rate-Limit-Remaining and X-Request-Cost.
+ * Concurrency grows additively while the bucket is healthy and is halved (with pacing)
+ * when it runs low, so a token backs off before Canvas answers 403 "Rate Limit Exceeded".
+ */
+@Component
+public class CanvasRateLimiter {
+
+    static final String REMAINING_HEADER = "X-Rate-Limit-Remaining";
+    static final String COST_HEADER = "X-Request-Cost";
+
+    private final int maxConcurrency;
+    private final double lowWatermark;
+    private final double highWatermark;
+    private final double leakPerSecond;
+    private final long idleEvictNanos = TimeUnit.MINUTES.toNanos(10);
+
+    private final ConcurrentHashMap<String, TokenState> states = new ConcurrentHashMap<>();
+
+    public CanvasRateLimiter(@Value("${canvas.rate-limit.max-concurrency:8}") int maxConcurrency,
+                             @Value("${canvas.rate-limit.low-watermark:150}") double lowWatermark,
+                             @Value("${canvas.rate-limit.high-watermark:400}") double highWatermark,
+                             @Value("${canvas.rate-limit.leak-per-second:10}") double leakPerSecond) {
+        this.maxConcurrency = maxConcurrency;
+        this.lowWatermark = lowWatermark;
+        this.highWatermark = highWatermark;
+        this.leakPerSecond = leakPerSecond;
+    }
+
+    /**
+     * Blocks until the token may start another request.
+     */
+    public void acquire(String apiToken) throws InterruptedException {
+        TokenState state = states.computeIfAbsent(apiToken, t -> new TokenState(maxConcurrency));
+        state.lock.lock();
+        try {
+            while (true) {
+                long pacingWait = state.nextAllowedAt - System.nanoTime();
+                if (state.inFlight < state.concurrency && pacingWait <= 0) {
+                    break;
+                }
+                if (pacingWait > 0) {
+                    state.released.awaitNanos(pacingWait);
+                } else {
+                    state.released.await();
+                }
+            }
+            state.inFlight++;
+            state.lastUsed = System.nanoTime();
+        } finally {
+            state.lock.unlock();
+        }
+        if (states.size() > 1000) {
+            evictIdle();
+        }
+    }
+
+    /**
+     * Ends a request and adapts concurrency/pacing to the headers of its response (may be null).
+     */
+    public void release(String apiToken, HttpHeaders responseHeaders) {
+        TokenState state = states.get(apiToken);
+        if (state == null) {
+            return;
+        }
+        state.lock.lock();
+        try {
+            state.inFlight--;
+            Double remaining = headerValue(responseHeaders, REMAINING_HEADER);
+            Double cost = headerValue(responseHeaders, COST_HEADER);
+            if (remaining != null) {
+                if (remaining < lowWatermark) {
+                    // Multiplicative decrease + pace the next call until the bucket leaks enough
+                    state.concurrency = Math.max(1, state.concurrency / 2);
+                    double deficit = (cost != null ? cost : 1.0) + (lowWatermark - remaining);
+                    long pacing = (long) (deficit / leakPerSecond * 1_000_000_000L);
+                    state.nextAllowedAt = Math.max(state.nextAllowedAt, System.nanoTime() + pacing);
+                } else if (remaining > highWatermark) {
+                    state.concurrency = Math.min(maxConcurrency, state.concurrency + 1);
+                }
+            }
+            state.released.signalAll();
+        } finally {
+            state.lock.unlock();
+        }
+    }
+
+    /**
+     * Canvas answered 403 "Rate Limit Exceeded": serialize and back off before the retry.
+     */
+    public void throttled(String apiToken, int attempt) {
+        TokenState state = states.computeIfAbsent(apiToken, t -> new TokenState(maxConcurrency));
+        state.lock.lock();
+        try {
+            state.concurrency = 1;
+            long backoff = TimeUnit.MILLISECONDS.toNanos(500L << Math.min(attempt, 4));
+            state.nextAllowedAt = Math.max(state.nextAllowedAt, System.nanoTime() + backoff);
+        } finally {
+            state.lock.unlock();
+        }
+    }
+
+    public static boolean isRateLimited(int status, HttpHeaders headers, String body) {
+        if (status != 403) {
+            return false;
+        }
+        Double remaining = headerValue(headers, REMAINING_HEADER);
+        return (remaining != null && remaining <= 0)
+                || (body != null && body.contains("Rate Limit Exceeded"));
+    }
+
+    private void evictIdle() {
+        long now = System.nanoTime();
+        states.entrySet().removeIf(e -> {
+            TokenState state = e.getValue();
+            state.lock.lock();
+            try {
+                return state.inFlight == 0 && now - state.lastUsed > idleEvictNanos;
+            } finally {
+                state.lock.unlock();
+            }
+        });
+    }
+
+    private static Double headerValue(HttpHeaders headers, String name) {
+        if (headers == null) return null;
+        String value = headers.getFirst(name);
+        if (value == null) return null;
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Guarded by a ReentrantLock rather than a monitor so waiting virtual threads do not pin their carrier.
+     */
+    private static class TokenState {
+        final ReentrantLock lock = new ReentrantLock();
+        final Condition released = lock.newCondition();
+        int concurrency;
+        int inFlight;
+        long nextAllowedAt = System.nanoTime();
+        long lastUsed = nextAllowedAt;
+
+        TokenState(int concurrency) {
+            this.concurrency = concurrency;
+        }
+    }
+}
@@ -3,18 +3,11 @@ package com.bestprograteam.canvas_dashboard.model.adapters;
 import com.bestprograteam.canvas_dashboard.model.entities.Submission;
 import com.bestprograteam.canvas_dashboard.model.repositories.SubmissionRepository;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
-import org.springframework.context.annotation.Primary;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpMethod;
-import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Repository;
-import org.springframework.web.client.RestTemplate;
 
-import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Comparator;
@@ -22,20 +15,16 @@ import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
-@Primary
 @Repository("canvasSubmissionRepository")
 public class CanvasSubmissionRepository implements SubmissionRepository {
 
     @Value("${canvas.instance.url}")
     private String canvasInstanceUrl;
 
-    private final RestTemplate restTemplate;
+    private final CanvasPaginator paginator;
 
-    public CanvasSubmissionRepository() {
-        this.restTemplate = new RestTemplateBuilder()
-                .setConnectTimeout(Duration.ofSeconds(10))
-                .setReadTimeout(Duration.ofSeconds(10))
-                .build();
+    public CanvasSubmissionRepository(CanvasPaginator paginator) {
+        this.paginator = paginator;
     }
 
     private String getApiToken() {
@@ -55,36 +44,52 @@ public class CanvasSubmissionRepository implements SubmissionRepository {
         try {
             System.out.println("[CanvasSubmissionRepository] Fetching submissions for course " + courseId + "...");
             String apiToken = getApiToken();
-            HttpHeaders headers = new HttpHeaders();
-            headers.set("Authorization", "Bearer " + apiToken);
-            HttpEntity<String> entity = new HttpEntity<>(headers);
-
-            ResponseEntity<List> response = restTemplate.exchange(
+            List<Submission> submissions = paginator.stream(
                     canvasInstanceUrl + "/api/v1/courses/" + courseId + "/students/submissions?student_id=self&per_page=100",
-                    HttpMethod.GET,
-                    entity,
-                    List.class
-            );
-            System.out.println("[CanvasSubmissionRepository] Successfully fetched " + (response.getBody() != null ? response.getBody().size() : 0) + " submissions for course " + courseId);
+                    apiToken,
+                    CanvasJsonDecoders.submission()
+            ).collect(Collectors.toList());
+            System.out.println("[CanvasSubmissionRepository] Successfully fetched " + submissions.size() + " submissions for course " + courseId);
 
-            if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
-                List<Map<String, Object>> submissionsData = response.getBody();
-                List<Submission> submissions = new ArrayList<>();
+            return submissions;
+        } catch (Exception e) {
+            System.err.println("[CanvasSubmissionRepository] ERROR fetching submissions for course " + courseId + ": " + e.getMessage());
+            e.printStackTrace();
+        }
+        return new ArrayList<>();
+    }
 
-                for (Map<String, Object> data : submissionsData) {
-                    Submission submission = mapToSubmission(data);
-                    if (submission != null) {
-                        submissions.add(submission);
-                    }
-                }
+    @Override
+    public List<Submission> findSubmissionsGradedSince(List<Integer> courseIds, LocalDateTime gradedSince) {
+        if (courseIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        try {
+            System.out.println("[CanvasSubmissionRepository] Fetching submissions graded since " + gradedSince
+                    + " for " + courseIds.size() + " courses...");
+            String apiToken = getApiToken();
+            StringBuilder url = new StringBuilder(canvasInstanceUrl)
+                    .append("/api/v1/courses/").append(courseIds.get(0))
+                    .append("/students/submissions?student_ids%5B%5D=self");
+            for (Integer courseId : courseIds) {
+                url.append("&course_ids%5B%5D=").append(courseId);
+            }
+            url.append("&graded_since=").append(Instant.ofEpochMilli(CanvasTimestamps.toEpochMillis(gradedSince)))
+                    .append("&per_page=100");
 
-                return submissions;
+            List<Submission> submissions = paginator.stream(url.toString(), apiToken, CanvasJsonDecoders.submission())
+                    .collect(Collectors.toList());
+            if (courseIds.size() == 1) {
+                submissions.forEach(s -> s.courseId = courseIds.get(0));
             }
+            System.out.println("[CanvasSubmissionRepository] Successfully fetched " + submissions.size() + " changed submissions");
+
+            return submissions;
         } catch (Exception e) {
-            System.err.println("[CanvasSubmissionRepository] ERROR fetching submissions for course " + courseId + ": " + e.getMessage());
+            System.err.println("[CanvasSubmissionRepository] ERROR fetching changed submissions: " + e.getMessage());
             e.printStackTrace();
         }
-        return new ArrayList<>();
+        return null;
     }
 
     @Override
@@ -105,35 +110,4 @@ public class CanvasSubmissionRepository implements SubmissionRepository {
                 .limit(limit)
                 .collect(Collectors.toList());
     }
-
-    private Submission mapToSubmission(Map<String, Object> data) {
-        try {
-            Integer assignmentId = (Integer) data.get("assignment_id");
-            Double score = getDouble(data.get("score"));
-            String workflowState = (String) data.get("workflow_state");
-
-            String gradedAtStr = (String) data.get("graded_at");
-            LocalDateTime gradedAt = null;
-            if (gradedAtStr != null) {
-                try {
-                    gradedAt = LocalDateTime.parse(gradedAtStr.substring(0, 19));
-                } catch (Exception e) {
-                }
-            }
-
-            Boolean late = (Boolean) data.get("late");
-
-            return new Submission(assignmentId, score, workflowState, gradedAt, late);
-        } catch (Exception e) {
-            System.err.println("Error mapping submission: " + e.getMessage());
-            return null;
-        }
-    }
-
-    private Double getDouble(Object value) {
-        if (value == null) return null;
-        if (value instanceof Double) return (Double) value;
-        if (value instanceof Integer) return ((Integer) value).doubleValue();
-        return null;
-    }
 }
@@ -0,0 +1,208 @@
+package com.bestprograteam.canvas_dashboard.model.adapters;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Canvas timestamps ("2025-03-14T23:59:59Z", optionally with fractional seconds or a
+ * numeric offset) decoded straight from the parser's character buffer to epoch millis,
+ * without substrings or DateTimeFormatter contexts.
+ * Entities keep LocalDateTime fields; they hold wall-clock time in the dashboard's zone
+ * (canvas.timezone, default: the JVM zone), so they compare correctly with now().
+ * The zone is fixed once: by CanvasTimeConfig at startup, or to the JVM zone on first use.
+ * Changing it afterwards fails, so results never depend on bean initialization order.
+ */
+public final class CanvasTimestamps {
+
+    /**
+     * Returned when the text is not a timestamp this decoder understands.
+     */
+    public static final long INVALID = Long.MIN_VALUE;
+
+    private static final int[] DAYS_IN_MONTH = {31, 29, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31};
+
+    private static final AtomicReference<ZoneId> ZONE = new AtomicReference<>();
+
+    private CanvasTimestamps() {}
+
+    public static ZoneId zone() {
+        ZoneId zone = ZONE.get();
+        if (zone == null) {
+            ZONE.compareAndSet(null, ZoneId.systemDefault());
+            zone = ZONE.get();
+        }
+        return zone;
+    }
+
+    /**
+     * Fixes the dashboard's zone. Repeating the same zone is a no-op.
+     * @throws IllegalStateException if another zone was already fixed or timestamps were already decoded
+     */
+    public static void fixZone(ZoneId newZone) {
+        if (!ZONE.compareAndSet(null, newZone) && !ZONE.get().equals(newZone)) {
+            throw new IllegalStateException("Canvas time zone is already " + ZONE.get()
+                    + "; canvas.timezone=" + newZone + " must be applied before any timestamp is decoded");
+        }
+    }
+
+    /**
+     * Current wall-clock time in the dashboard's zone.
+     */
+    public static LocalDateTime now() {
+        return LocalDateTime.now(zone());
+    }
+
+    public static long parseEpochMillis(CharSequence text) {
+        if (text == null) {
+            return INVALID;
+        }
+        char[] chars = new char[text.length()];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = text.charAt(i);
+        }
+        return parseEpochMillis(chars, 0, chars.length);
+    }
+
+    /**
+     * Parses yyyy-MM-ddTHH:mm:ss[.fraction][Z|±HH[:]mm|±HH] at chars[offset, offset + length).
+     * A timestamp without an offset is taken as UTC, which is what Canvas sends.
+     */
+    public static long parseEpochMillis(char[] chars, int offset, int length) {
+        if (chars == null || length < 19) {
+            return INVALID;
+        }
+        int p = offset;
+        int end = offset + length;
+
+        int year = digits(chars, p, 4);
+        int month = digits(chars, p + 5, 2);
+        int day = digits(chars, p + 8, 2);
+        int hour = digits(chars, p + 11, 2);
+        int minute = digits(chars, p + 14, 2);
+        int second = digits(chars, p + 17, 2);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || hour < 0 || hour > 23
+                || minute < 0 || minute > 59 || second < 0 || second > 59
+                || chars[p + 4] != '-' || chars[p + 7] != '-'
+                || (chars[p + 10] != 'T' && chars[p + 10] != 't' && chars[p + 10] != ' ')
+                || chars[p + 13] != ':' || chars[p + 16] != ':') {
+            return INVALID;
+        }
+        if (day > DAYS_IN_MONTH[month - 1] || (month == 2 && day == 29 && !isLeapYear(year))) {
+            return INVALID;
+        }
+        p += 19;
+
+        // Fractional seconds: keep milliseconds, ignore finer digits
+        int millis = 0;
+        if (p < end && chars[p] == '.') {
+            p++;
+            int start = p;
+            while (p < end && isDigit(chars[p])) {
+                if (p - start < 3) {
+                    millis = millis * 10 + (chars[p] - '0');
+                }
+                p++;
+            }
+            if (p == start) {
+                return INVALID;
+            }
+            for (int scale = p - start; scale < 3; scale++) {
+                millis *= 10;
+            }
+        }
+
+        int offsetSeconds = 0;
+        if (p < end) {
+            char sign = chars[p];
+            if (sign == 'Z' || sign == 'z') {
+                p++;
+            } else if (sign == '+' || sign == '-') {
+                int offsetHours = p + 3 <= end ? digits(chars, p + 1, 2) : -1;
+                if (offsetHours < 0 || offsetHours > 18) {
+                    return INVALID;
+                }
+                p += 3;
+                int offsetMinutes = 0;
+                if (p < end) {
+                    if (chars[p] == ':') {
+                        p++;
+                    }
+                    if (p + 2 > end || (offsetMinutes = digits(chars, p, 2)) < 0) {
+                        return INVALID;
+                    }
+                    p += 2;
+                }
+                offsetSeconds = (offsetHours * 3600 + offsetMinutes * 60) * (sign == '-' ? -1 : 1);
+            } else {
+                return INVALID;
+            }
+        }
+        if (p != end) {
+            return INVALID;
+        }
+
+        long epochSecond = epochDay(year, month, day) * 86_400L
+                + hour * 3600L + minute * 60L + second - offsetSeconds;
+        return epochSecond * 1000L + millis;
+    }
+
+    /**
+     * Wall-clock time of an instant in the dashboard's zone.
+     */
+    public static LocalDateTime toLocalDateTime(long epochMillis) {
+        ZoneId currentZone = zone();
+        if (currentZone instanceof ZoneOffset fixed) {
+            return LocalDateTime.ofEpochSecond(Math.floorDiv(epochMillis, 1000L),
+                    (int) Math.floorMod(epochMillis, 1000L) * 1_000_000, fixed);
+        }
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), currentZone);
+    }
+
+    /**
+     * Inverse of toLocalDateTime; INVALID for null.
+     */
+    public static long toEpochMillis(LocalDateTime time) {
+        return time != null ? time.atZone(zone()).toInstant().toEpochMilli() : INVALID;
+    }
+
+    /**
+     * Days since 1970-01-01 for a proleptic Gregorian date (H. Hinnant's days_from_civil).
+     */
+    static long epochDay(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        int era = Math.floorDiv(y, 400);
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146_097L + dayOfEra - 719_468L;
+    }
+
+    private static boolean isLeapYear(int year) {
+        return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+    }
+
+    /**
+     * Value of count decimal digits at chars[from], or -1 if any of them is not a digit.
+     */
+    private static int digits(char[] chars, int from, int count) {
+        if (from + count > chars.length) {
+            return -1;
+        }
+        int value = 0;
+        for (int i = from; i < from + count; i++) {
+            char c = chars[i];
+            if (!isDigit(c)) {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
@@ -0,0 +1,72 @@
+package com.bestprograteam.canvas_dashboard.model.adapters;
+
+import com.bestprograteam.canvas_dashboard.model.entities.Assignment;
+import com.bestprograteam.canvas_dashboard.model.repositories.UpcomingRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Upcoming work across all courses from the Canvas planner (/api/v1/planner/items).
+ */
+@Repository("canvasUpcomingRepository")
+public class CanvasUpcomingRepository implements UpcomingRepository {
+
+    @Value("${canvas.instance.url}")
+    private String canvasInstanceUrl;
+
+    private final CanvasPaginator paginator;
+
+    public CanvasUpcomingRepository(CanvasPaginator paginator) {
+        this.paginator = paginator;
+    }
+
+    private String getApiToken() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()) {
+            Object details = authentication.getDetails();
+            if (details instanceof Map) {
+                Map<String, Object> userDetails = (Map<String, Object>) details;
+                return (String) userDetails.get("apiToken");
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public List<Assignment> findUpcomingAssignments(Integer days) {
+        try {
+            System.out.println("[CanvasUpcomingRepository] Fetching planner items for the next " + days + " days...");
+            String apiToken = getApiToken();
+            Instant start = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+            Instant end = start.plus(days, ChronoUnit.DAYS);
+            LocalDateTime now = CanvasTimestamps.toLocalDateTime(start.toEpochMilli());
+            LocalDateTime limit = CanvasTimestamps.toLocalDateTime(end.toEpochMilli());
+
+            // Same window as the per-course cards: due strictly after now and before now + days
+            List<Assignment> upcoming = paginator.stream(
+                    canvasInstanceUrl + "/api/v1/planner/items?start_date=" + start + "&end_date=" + end + "&per_page=100",
+                    apiToken,
+                    CanvasJsonDecoders.plannerItem()
+            ).filter(a -> a.dueAt != null && a.dueAt.isAfter(now) && a.dueAt.isBefore(limit))
+                    .sorted(Comparator.comparing((Assignment a) -> a.dueAt))
+                    .collect(Collectors.toList());
+            System.out.println("[CanvasUpcomingRepository] Successfully fetched " + upcoming.size() + " upcoming assignments");
+
+            return upcoming;
+        } catch (Exception e) {
+            System.err.println("[CanvasUpcomingRepository] ERROR fetching planner items: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return null;
+    }
+}
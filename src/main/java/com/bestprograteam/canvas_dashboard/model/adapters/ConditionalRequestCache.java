@@ -0,0 +1,45 @@
+package com.bestprograteam.canvas_dashboard.model.adapters;
+
+import com.bestprograteam.canvas_dashboard.model.adapters.cache.TtlCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Remembers ETag / Last-Modified validators per (token, URL) together with the page
+ * they validated, so a 304 Not Modified can reuse the already decoded entities.
+ */
+@Component
+public class ConditionalRequestCache {
+
+    public record Entry(String etag, String lastModified, Object page) {}
+
+    private record Key(String apiToken, String url) {}
+
+    private final TtlCache<Key, Entry> entries;
+
+    public ConditionalRequestCache(@Value("${canvas.conditional.ttl-hours:24}") long ttlHours,
+                                   @Value("${canvas.conditional.max-entries:10000}") int maxEntries) {
+        this.entries = new TtlCache<>(Duration.ofHours(ttlHours), maxEntries);
+    }
+
+    public Entry get(String apiToken, String url) {
+        return entries.get(new Key(apiToken, url));
+    }
+
+    /**
+     * Stores the page when Canvas sent at least one validator; otherwise forgets the URL.
+     */
+    public void store(String apiToken, String url, HttpHeaders responseHeaders, Object page) {
+        String etag = responseHeaders.getETag();
+        String lastModified = responseHeaders.getFirst(HttpHeaders.LAST_MODIFIED);
+        Key key = new Key(apiToken, url);
+        if (etag == null && lastModified == null) {
+            entries.invalidate(key);
+            return;
+        }
+        entries.put(key, new Entry(etag, lastModified, page));
+    }
+}
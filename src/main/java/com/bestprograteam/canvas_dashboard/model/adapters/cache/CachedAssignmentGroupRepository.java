@@ -0,0 +1,40 @@
+package com.bestprograteam.canvas_dashboard.model.adapters.cache;
+
+import com.bestprograteam.canvas_dashboard.model.entities.AssignmentGroup;
+import com.bestprograteam.canvas_dashboard.model.repositories.AssignmentGroupRepository;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Per-user, per-course TTL cache in front of the Canvas assignment group adapter.
+ */
+@Primary
+@Repository("cachedAssignmentGroupRepository")
+public class CachedAssignmentGroupRepository implements AssignmentGroupRepository {
+
+    private final AssignmentGroupRepository delegate;
+    private final RepositoryCache cache;
+
+    public CachedAssignmentGroupRepository(@Qualifier("canvasAssignmentGroupRepository") AssignmentGroupRepository delegate,
+                                           RepositoryCache cache) {
+        this.delegate = delegate;
+        this.cache = cache;
+    }
+
+    @Override
+    public List<AssignmentGroup> findAssignmentGroupsByCourseId(Integer courseId) {
+        return RepositoryCache.load(cache.assignmentGroups, cache.keyFor(courseId),
+                () -> delegate.findAssignmentGroupsByCourseId(courseId));
+    }
+
+    @Override
+    public AssignmentGroup findAssignmentGroupById(Integer courseId, Integer groupId) {
+        return findAssignmentGroupsByCourseId(courseId).stream()
+                .filter(g -> g.id.equals(groupId))
+                .findFirst()
+                .orElse(null);
+    }
+}
@@ -0,0 +1,172 @@
+package com.bestprograteam.canvas_dashboard.model.adapters.cache;
+
+import com.bestprograteam.canvas_dashboard.model.adapters.CanvasTimestamps;
+import com.bestprograteam.canvas_dashboard.model.entities.Assignment;
+import com.bestprograteam.canvas_dashboard.model.entities.Submission;
+import com.bestprograteam.canvas_dashboard.model.repositories.AssignmentRepository;
+import com.bestprograteam.canvas_dashboard.model.repositories.SubmissionRepository;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Per-user, per-course TTL cache in front of the Canvas assignment adapter.
+ * Assignment lists with embedded submissions (what the dashboard reads) are kept for the
+ * assignments TTL; their submissions are kept current in between by one graded_since query
+ * across all of the user's cached courses, at most once per submissions TTL, merged into the
+ * cached lists. A grade for an assignment a cached list does not have drops that course, so its
+ * next read downloads it in full.
+ */
+@Primary
+@Repository("cachedAssignmentRepository")
+public class CachedAssignmentRepository implements AssignmentRepository {
+
+    // Margin for clock skew between this server and Canvas; merging is idempotent
+    private static final Duration SKEW = Duration.ofMinutes(5);
+
+    private final AssignmentRepository delegate;
+    private final SubmissionRepository submissionDelegate;
+    private final RepositoryCache cache;
+
+    public CachedAssignmentRepository(@Qualifier("canvasAssignmentRepository") AssignmentRepository delegate,
+                                      @Qualifier("canvasSubmissionRepository") SubmissionRepository submissionDelegate,
+                                      RepositoryCache cache) {
+        this.delegate = delegate;
+        this.submissionDelegate = submissionDelegate;
+        this.cache = cache;
+    }
+
+    @Override
+    public List<Assignment> findAssignmentsByCourseId(Integer courseId) {
+        return RepositoryCache.load(cache.assignments, cache.keyFor(courseId),
+                () -> delegate.findAssignmentsByCourseId(courseId));
+    }
+
+    @Override
+    public List<Assignment> findAssignmentsWithSubmissions(Integer courseId) {
+        RepositoryCache.Key key = cache.keyFor(courseId);
+        if (key == null) {
+            return delegate.findAssignmentsWithSubmissions(courseId);
+        }
+        SubmissionStore store = cache.submissionStores.getOrLoad(key.userId(), SubmissionStore::new, s -> true);
+        syncSubmissions(key.userId(), store);
+
+        LocalDateTime fetchedFrom = CanvasTimestamps.now();
+        AtomicBoolean fetched = new AtomicBoolean();
+        List<Assignment> assignments = RepositoryCache.load(cache.assignmentsWithSubmissions, key, () -> {
+            fetched.set(true);
+            return delegate.findAssignmentsWithSubmissions(courseId);
+        });
+        if (fetched.get() && !assignments.isEmpty()) {
+            synchronized (store) {
+                store.courseLoaded(courseId, fetchedFrom);
+            }
+        }
+        return assignments;
+    }
+
+    /**
+     * One graded_since request for the user's cached courses when due, merged into the cached lists.
+     * The store is locked to take the snapshot and to merge, never during the Canvas request.
+     */
+    private void syncSubmissions(String userId, SubmissionStore store) {
+        List<Integer> courseIds;
+        LocalDateTime gradedSince;
+        LocalDateTime syncedFrom = CanvasTimestamps.now();
+        synchronized (store) {
+            for (Integer courseId : store.courseIds()) {
+                if (cache.assignmentsWithSubmissions.get(new RepositoryCache.Key(userId, courseId)) == null) {
+                    store.forgetCourse(courseId); // Expired or invalidated: its next read is a full download
+                }
+            }
+            if (!store.startSync(cache.submissionSyncIntervalNanos)) {
+                return;
+            }
+            courseIds = store.courseIds();
+            gradedSince = store.highWaterMark().minus(SKEW);
+        }
+
+        List<Submission> changed = submissionDelegate.findSubmissionsGradedSince(courseIds, gradedSince);
+
+        synchronized (store) {
+            if (changed == null) {
+                store.syncFailed();
+                return;
+            }
+            for (Submission submission : changed) {
+                if (submission.assignmentId != null && !merge(userId, courseIds, submission)) {
+                    // A grade for an assignment no cached list has (created after it was fetched)
+                    List<Integer> affected = submission.courseId != null ? List.of(submission.courseId) : courseIds;
+                    System.out.println("[CachedAssignmentRepository] Unknown assignment " + submission.assignmentId
+                            + " in delta, reloading course(s) " + affected);
+                    for (Integer courseId : affected) {
+                        cache.invalidateCourse(userId, courseId);
+                        store.forgetCourse(courseId);
+                    }
+                }
+            }
+            store.finishSync(syncedFrom);
+        }
+    }
+
+    /**
+     * Puts a changed submission on its assignment in the cached list of its course (or, without
+     * course_id, of whichever synced course has the assignment). Cached lists are shared, so the
+     * list and the assignment are copied rather than modified.
+     * @return false if no cached list has the assignment
+     */
+    private boolean merge(String userId, List<Integer> courseIds, Submission submission) {
+        for (Integer courseId : submission.courseId != null ? List.of(submission.courseId) : courseIds) {
+            AtomicBoolean found = new AtomicBoolean();
+            cache.assignmentsWithSubmissions.update(new RepositoryCache.Key(userId, courseId), assignments -> {
+                List<Assignment> merged = new ArrayList<>(assignments.size());
+                for (Assignment assignment : assignments) {
+                    if (submission.assignmentId.equals(assignment.id)) {
+                        merged.add(withSubmission(assignment, submission));
+                        found.set(true);
+                    } else {
+                        merged.add(assignment);
+                    }
+                }
+                return found.get() ? List.copyOf(merged) : assignments;
+            });
+            if (found.get()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Assignment withSubmission(Assignment assignment, Submission submission) {
+        Assignment copy = new Assignment(assignment.id, assignment.courseId, assignment.name, assignment.dueAt,
+                assignment.pointsPossible, assignment.assignmentGroupId, assignment.workflowState);
+        copy.submission = submission;
+        return copy;
+    }
+
+    @Override
+    public Assignment findAssignmentById(Integer courseId, Integer assignmentId) {
+        return findAssignmentsByCourseId(courseId).stream()
+                .filter(a -> a.id.equals(assignmentId))
+                .findFirst()
+                .orElse(null);
+    }
+
+    @Override
+    public List<Assignment> findUpcomingAssignments(Integer courseId, Integer days) {
+        LocalDateTime now = CanvasTimestamps.now();
+        LocalDateTime future = now.plusDays(days);
+
+        return findAssignmentsByCourseId(courseId).stream()
+                .filter(a -> a.dueAt != null)
+                .filter(a -> a.dueAt.isAfter(now) && a.dueAt.isBefore(future))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,40 @@
+package com.bestprograteam.canvas_dashboard.model.adapters.cache;
+
+import com.bestprograteam.canvas_dashboard.model.entities.Course;
+import com.bestprograteam.canvas_dashboard.model.repositories.CourseRepository;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Per-user TTL cache in front of the Canvas course adapter.
+ */
+@Primary
+@Repository("cachedCourseRepository")
+public class CachedCourseRepository implements CourseRepository {
+
+    private final CourseRepository delegate;
+    private final RepositoryCache cache;
+
+    public CachedCourseRepository(@Qualifier("canvasCourseRepository") CourseRepository delegate,
+                                  RepositoryCache cache) {
+        this.delegate = delegate;
+        this.cache = cache;
+    }
+
+    @Override
+    public List<Course> findAllActiveCourses() {
+        return RepositoryCache.load(cache.courses, cache.keyFor(null), delegate::findAllActiveCourses);
+    }
+
+    /**
+     * Cached with the enrollments TTL, since the inline scores change as often as enrollments.
+     */
+    @Override
+    public List<Course> findActiveCoursesWithEnrollments() {
+        return RepositoryCache.load(cache.coursesWithEnrollments, cache.keyFor(null),
+                delegate::findActiveCoursesWithEnrollments);
+    }
+}
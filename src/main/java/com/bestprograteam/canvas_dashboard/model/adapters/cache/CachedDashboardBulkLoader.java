@@ -0,0 +1,34 @@
+package com.bestprograteam.canvas_dashboard.model.adapters.cache;
+
+import com.bestprograteam.canvas_dashboard.model.repositories.DashboardBulkLoader;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Per-user TTL cache in front of the GraphQL bulk loader, so reloading the dashboard within
+ * the TTL does not repeat the query. Bundles include submissions, so they share their TTL.
+ * Failures are thrown by the loader and never cached.
+ */
+@Primary
+@Component("cachedDashboardBulkLoader")
+@ConditionalOnProperty(name = "canvas.loader", havingValue = "graphql")
+public class CachedDashboardBulkLoader implements DashboardBulkLoader {
+
+    private final DashboardBulkLoader delegate;
+    private final RepositoryCache cache;
+
+    public CachedDashboardBulkLoader(@Qualifier("canvasGraphQLLoader") DashboardBulkLoader delegate,
+                                     RepositoryCache cache) {
+        this.delegate = delegate;
+        this.cache = cache;
+    }
+
+    @Override
+    public List<CourseBundle> loadActiveCourses() {
+        return RepositoryCache.load(cache.bundles, cache.keyFor(null), delegate::loadActiveCourses);
+    }
+}
@@ -0,0 +1,39 @@
+package com.bestprograteam.canvas_dashboard.model.adapters.cache;
+
+import com.bestprograteam.canvas_dashboard.model.entities.Enrollment;
+import com.bestprograteam.canvas_dashboard.model.repositories.EnrollmentRepository;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Per-user TTL cache in front of the Canvas enrollment adapter.
+ */
+@Primary
+@Repository("cachedEnrollmentRepository")
+public class CachedEnrollmentRepository implements EnrollmentRepository {
+
+    private final EnrollmentRepository delegate;
+    private final RepositoryCache cache;
+
+    public CachedEnrollmentRepository(@Qualifier("canvasEnrollmentRepository") EnrollmentRepository delegate,
+                                      RepositoryCache cache) {
+        this.delegate = delegate;
+        this.cache = cache;
+    }
+
+    @Override
+    public List<Enrollment> findAllEnrollments() {
+        return RepositoryCache.load(cache.enrollments, cache.keyFor(null), delegate::findAllEnrollments);
+    }
+
+    @Override
+    public Enrollment findEnrollmentByCourseId(Integer courseId) {
+        return findAllEnrollments().stream()
+                .filter(e -> e.courseId.equals(courseId))
+                .findFirst()
+                .orElse(null);
+    }
+}
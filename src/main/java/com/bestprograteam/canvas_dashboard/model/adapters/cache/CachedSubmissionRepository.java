@@ -0,0 +1,60 @@
+package com.bestprograteam.canvas_dashboard.model.adapters.cache;
+
+import com.bestprograteam.canvas_dashboard.model.entities.Submission;
+import com.bestprograteam.canvas_dashboard.model.repositories.SubmissionRepository;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Per-user, per-course TTL cache in front of the Canvas submission adapter.
+ */
+@Primary
+@Repository("cachedSubmissionRepository")
+public class CachedSubmissionRepository implements SubmissionRepository {
+
+    private final SubmissionRepository delegate;
+    private final RepositoryCache cache;
+
+    public CachedSubmissionRepository(@Qualifier("canvasSubmissionRepository") SubmissionRepository delegate,
+                                      RepositoryCache cache) {
+        this.delegate = delegate;
+        this.cache = cache;
+    }
+
+    @Override
+    public List<Submission> findSubmissionsByCourseId(Integer courseId) {
+        return RepositoryCache.load(cache.submissions, cache.keyFor(courseId),
+                () -> delegate.findSubmissionsByCourseId(courseId));
+    }
+
+    @Override
+    public Submission findSubmissionByAssignmentId(Integer courseId, Integer assignmentId) {
+        return findSubmissionsByCourseId(courseId).stream()
+                .filter(s -> s.assignmentId.equals(assignmentId))
+                .findFirst()
+                .orElse(null);
+    }
+
+    @Override
+    public List<Submission> findRecentGrades(Integer courseId, Integer limit) {
+        return findSubmissionsByCourseId(courseId).stream()
+                .filter(s -> s.gradedAt != null)
+                .sorted(Comparator.comparing((Submission s) -> s.gradedAt).reversed())
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Deltas are never cached: each one asks for what changed since a different point in time.
+     */
+    @Override
+    public List<Submission> findSubmissionsGradedSince(List<Integer> courseIds, LocalDateTime gradedSince) {
+        return delegate.findSubmissionsGradedSince(courseIds, gradedSince);
+    }
+}
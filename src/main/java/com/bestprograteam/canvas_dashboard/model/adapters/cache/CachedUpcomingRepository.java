@@ -0,0 +1,42 @@
+package com.bestprograteam.canvas_dashboard.model.adapters.cache;
+
+import com.bestprograteam.canvas_dashboard.model.entities.Assignment;
+import com.bestprograteam.canvas_dashboard.model.repositories.UpcomingRepository;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Per-user TTL cache in front of the Canvas planner adapter.
+ */
+@Primary
+@Repository("cachedUpcomingRepository")
+public class CachedUpcomingRepository implements UpcomingRepository {
+
+    private final UpcomingRepository delegate;
+    private final RepositoryCache cache;
+
+    public CachedUpcomingRepository(@Qualifier("canvasUpcomingRepository") UpcomingRepository delegate,
+                                    RepositoryCache cache) {
+        this.delegate = delegate;
+        this.cache = cache;
+    }
+
+    /**
+     * Unlike the other lists, an empty result is cached: the adapter signals failure with null,
+     * and "nothing due this week" is a normal answer.
+     */
+    @Override
+    public List<Assignment> findUpcomingAssignments(Integer days) {
+        RepositoryCache.Key key = cache.keyFor(null);
+        if (key == null) {
+            return delegate.findUpcomingAssignments(days);
+        }
+        return cache.upcoming.getOrLoad(new RepositoryCache.UpcomingKey(key.userId(), days), () -> {
+            List<Assignment> loaded = delegate.findUpcomingAssignments(days);
+            return loaded != null ? List.copyOf(loaded) : null;
+        }, list -> true);
+    }
+}
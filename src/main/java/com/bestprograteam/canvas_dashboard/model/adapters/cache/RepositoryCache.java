@@ -0,0 +1,134 @@
+package com.bestprograteam.canvas_dashboard.model.adapters.cache;
+
+import com.bestprograteam.canvas_dashboard.model.entities.Assignment;
+import com.bestprograteam.canvas_dashboard.model.entities.AssignmentGroup;
+import com.bestprograteam.canvas_dashboard.model.entities.Course;
+import com.bestprograteam.canvas_dashboard.model.entities.Enrollment;
+import com.bestprograteam.canvas_dashboard.model.entities.Submission;
+import com.bestprograteam.canvas_dashboard.model.repositories.DashboardBulkLoader;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Per-user caches shared by the caching repository decorators.
+ * Each entity type has its own TTL; all caches are size-bounded (LRU).
+ */
+@Component
+public class RepositoryCache {
+
+    /**
+     * Cache key: Canvas user plus course (null for user-wide lists such as courses and enrollments).
+     */
+    public record Key(String userId, Integer courseId) {}
+
+    /**
+     * Cache key for the cross-course upcoming list: Canvas user plus look-ahead window.
+     */
+    public record UpcomingKey(String userId, int days) {}
+
+    final TtlCache<Key, List<Course>> courses;
+    final TtlCache<Key, List<Course>> coursesWithEnrollments;
+    final TtlCache<Key, List<Enrollment>> enrollments;
+    final TtlCache<Key, List<Assignment>> assignments;
+    final TtlCache<Key, List<Submission>> submissions;
+    final TtlCache<Key, List<Assignment>> assignmentsWithSubmissions;
+    final TtlCache<String, SubmissionStore> submissionStores; // Per user, see CachedAssignmentRepository
+    final long submissionSyncIntervalNanos;
+    final TtlCache<Key, List<AssignmentGroup>> assignmentGroups;
+    final TtlCache<UpcomingKey, List<Assignment>> upcoming;
+    final TtlCache<Key, List<DashboardBulkLoader.CourseBundle>> bundles; // Whole dashboard (canvas.loader=graphql)
+
+    public RepositoryCache(@Value("${canvas.cache.courses-ttl-seconds:600}") long coursesTtl,
+                           @Value("${canvas.cache.enrollments-ttl-seconds:120}") long enrollmentsTtl,
+                           @Value("${canvas.cache.assignments-ttl-seconds:300}") long assignmentsTtl,
+                           @Value("${canvas.cache.submissions-ttl-seconds:120}") long submissionsTtl,
+                           @Value("${canvas.cache.assignment-groups-ttl-seconds:1800}") long groupsTtl,
+                           @Value("${canvas.cache.upcoming-ttl-seconds:120}") long upcomingTtl,
+                           @Value("${canvas.cache.submission-store-ttl-hours:24}") long submissionStoreTtl,
+                           @Value("${canvas.cache.max-entries:5000}") int maxEntries) {
+        this.courses = new TtlCache<>(Duration.ofSeconds(coursesTtl), maxEntries);
+        this.coursesWithEnrollments = new TtlCache<>(Duration.ofSeconds(enrollmentsTtl), maxEntries);
+        this.enrollments = new TtlCache<>(Duration.ofSeconds(enrollmentsTtl), maxEntries);
+        this.assignments = new TtlCache<>(Duration.ofSeconds(assignmentsTtl), maxEntries);
+        this.submissions = new TtlCache<>(Duration.ofSeconds(submissionsTtl), maxEntries);
+        // Kept as long as plain assignments; their submissions are refreshed by graded_since deltas
+        this.assignmentsWithSubmissions = new TtlCache<>(Duration.ofSeconds(assignmentsTtl), maxEntries);
+        this.submissionStores = new TtlCache<>(Duration.ofHours(submissionStoreTtl), maxEntries);
+        this.submissionSyncIntervalNanos = Duration.ofSeconds(submissionsTtl).toNanos();
+        this.assignmentGroups = new TtlCache<>(Duration.ofSeconds(groupsTtl), maxEntries);
+        this.upcoming = new TtlCache<>(Duration.ofSeconds(upcomingTtl), maxEntries);
+        this.bundles = new TtlCache<>(Duration.ofSeconds(submissionsTtl), maxEntries);
+    }
+
+    /**
+     * Key for the authenticated user, or null when there is no user (nothing is cached then).
+     */
+    Key keyFor(Integer courseId) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return null;
+        }
+        return new Key(authentication.getName(), courseId);
+    }
+
+    /**
+     * Drop everything cached for a user (e.g. on logout or explicit refresh).
+     */
+    public void invalidateUser(String userId) {
+        courses.invalidateIf(key -> Objects.equals(key.userId(), userId));
+        coursesWithEnrollments.invalidateIf(key -> Objects.equals(key.userId(), userId));
+        enrollments.invalidateIf(key -> Objects.equals(key.userId(), userId));
+        assignments.invalidateIf(key -> Objects.equals(key.userId(), userId));
+        submissions.invalidateIf(key -> Objects.equals(key.userId(), userId));
+        assignmentsWithSubmissions.invalidateIf(key -> Objects.equals(key.userId(), userId));
+        submissionStores.invalidate(userId);
+        assignmentGroups.invalidateIf(key -> Objects.equals(key.userId(), userId));
+        upcoming.invalidateIf(key -> Objects.equals(key.userId(), userId));
+        bundles.invalidateIf(key -> Objects.equals(key.userId(), userId));
+    }
+
+    /**
+     * Drop the per-course data of one user (assignments, submissions, groups).
+     */
+    public void invalidateCourse(String userId, Integer courseId) {
+        Key key = new Key(userId, courseId);
+        assignments.invalidate(key);
+        submissions.invalidate(key);
+        assignmentsWithSubmissions.invalidate(key);
+        assignmentGroups.invalidate(key);
+        bundles.invalidate(new Key(userId, null)); // Holds every course of the user
+    }
+
+    public void clear() {
+        courses.clear();
+        coursesWithEnrollments.clear();
+        enrollments.clear();
+        assignments.clear();
+        submissions.clear();
+        assignmentsWithSubmissions.clear();
+        submissionStores.clear();
+        assignmentGroups.clear();
+        upcoming.clear();
+        bundles.clear();
+    }
+
+    /**
+     * Adapters return an empty list when Canvas fails, so empty results are never cached.
+     */
+    static <T> List<T> load(TtlCache<Key, List<T>> cache, Key key, Supplier<List<T>> loader) {
+        if (key == null) {
+            return loader.get();
+        }
+        return cache.getOrLoad(key, () -> {
+            List<T> loaded = loader.get();
+            return loaded != null ? List.copyOf(loaded) : null;
+        }, list -> !list.isEmpty());
+    }
+}
@@ -0,0 +1,78 @@
+package com.bestprograteam.canvas_dashboard.model.adapters.cache;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * One user's graded_since sync state for the cached assignment lists (with embedded submissions):
+ * which courses are cached and the high-water mark up to which all of them are known to be current.
+ * The submissions themselves stay in the RepositoryCache lists; deltas are merged into those.
+ * Callers synchronize on the store, but never hold it during a Canvas request.
+ */
+class SubmissionStore {
+
+    private final Set<Integer> courseIds = new HashSet<>();
+    private LocalDateTime highWaterMark;
+    private long lastSyncNanos = System.nanoTime();
+    private boolean syncing;
+    private LocalDateTime loadedDuringSync; // Oldest full fetch that started while a delta was in flight
+
+    /**
+     * Records a course's full list, fetched from {@code fetchedFrom} on. The mark never moves past
+     * the oldest such time, so the next delta also covers grades given during this fetch.
+     */
+    void courseLoaded(Integer courseId, LocalDateTime fetchedFrom) {
+        courseIds.add(courseId);
+        if (highWaterMark == null || fetchedFrom.isBefore(highWaterMark)) {
+            highWaterMark = fetchedFrom;
+        }
+        if (syncing && (loadedDuringSync == null || fetchedFrom.isBefore(loadedDuringSync))) {
+            loadedDuringSync = fetchedFrom;
+        }
+    }
+
+    void forgetCourse(Integer courseId) {
+        courseIds.remove(courseId);
+    }
+
+    List<Integer> courseIds() {
+        return new ArrayList<>(courseIds);
+    }
+
+    LocalDateTime highWaterMark() {
+        return highWaterMark;
+    }
+
+    /**
+     * Claims the next delta if one is due and none is in flight.
+     */
+    boolean startSync(long intervalNanos) {
+        if (syncing || courseIds.isEmpty() || System.nanoTime() - lastSyncNanos < intervalNanos) {
+            return false;
+        }
+        syncing = true;
+        lastSyncNanos = System.nanoTime();
+        return true;
+    }
+
+    /**
+     * Ends a merged delta: the mark moves to {@code syncedFrom}, or to the start of any full fetch
+     * that raced with it, whichever is older.
+     */
+    void finishSync(LocalDateTime syncedFrom) {
+        highWaterMark = loadedDuringSync != null && loadedDuringSync.isBefore(syncedFrom) ? loadedDuringSync : syncedFrom;
+        loadedDuringSync = null;
+        syncing = false;
+    }
+
+    /**
+     * Ends a delta that failed; the mark stays and Canvas is not retried before the next interval.
+     */
+    void syncFailed() {
+        loadedDuringSync = null;
+        syncing = false;
+    }
+}
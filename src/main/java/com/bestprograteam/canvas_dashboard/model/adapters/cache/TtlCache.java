@@ -0,0 +1,93 @@
+package com.bestprograteam.canvas_dashboard.model.adapters.cache;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Small size-bounded LRU cache with a fixed time-to-live per entry.
+ * Loaders run outside the lock, so a slow Canvas call never blocks other users.
+ */
+public class TtlCache<K, V> {
+
+    private final long ttlNanos;
+    private final LinkedHashMap<K, Entry<V>> entries;
+
+    public TtlCache(Duration ttl, int maxEntries) {
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Cached value, or null when absent or expired.
+     */
+    public synchronized V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (System.nanoTime() - entry.storedAt >= ttlNanos) {
+            entries.remove(key);
+            return null;
+        }
+        return entry.value;
+    }
+
+    public synchronized void put(K key, V value) {
+        entries.put(key, new Entry<>(value, System.nanoTime()));
+    }
+
+    /**
+     * Returns the cached value or loads it. Values rejected by {@code cacheable} are returned but not stored.
+     */
+    public V getOrLoad(K key, Supplier<V> loader, Predicate<V> cacheable) {
+        V cached = get(key);
+        if (cached != null) {
+            return cached;
+        }
+        V loaded = loader.get();
+        if (loaded != null && cacheable.test(loaded)) {
+            put(key, loaded);
+        }
+        return loaded;
+    }
+
+    /**
+     * Replaces a live entry's value without renewing its time-to-live.
+     * @return false when the key is absent or expired (nothing is stored then)
+     */
+    public synchronized boolean update(K key, UnaryOperator<V> update) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null || System.nanoTime() - entry.storedAt >= ttlNanos) {
+            return false;
+        }
+        entries.put(key, new Entry<>(update.apply(entry.value), entry.storedAt));
+        return true;
+    }
+
+    public synchronized void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    public synchronized void invalidateIf(Predicate<K> predicate) {
+        entries.keySet().removeIf(predicate);
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private record Entry<V>(V value, long storedAt) {}
+}
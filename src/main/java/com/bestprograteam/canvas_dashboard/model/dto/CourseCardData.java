@@ -9,12 +9,19 @@ import java.util.List;
  */
 public class CourseCardData {
 
+    public static final String STATUS_FRESH = "fresh";     // Loaded within this request's budget
+    public static final String STATUS_STALE = "stale";     // Over budget or failed; last known card shown
+    public static final String STATUS_LOADING = "loading"; // Over budget and nothing cached yet
+
     public CourseWithGrades courseWithGrades;
     public List<RecentGrade> recentGrades;
     public List<CategoryBreakdown> categoryBreakdown;
     public List<Assignment> upcomingAssignments;
     public String trend;
     public double remainingPoints;
+    public String status = STATUS_FRESH;
+    public CourseColumns columns; // Primitive per-assignment data behind a freshly built card; null otherwise
+    public PredictionData prediction; // This course's own prediction, computed as the card finishes loading
 
     public CourseCardData() {}
 
@@ -29,6 +36,35 @@ public class CourseCardData {
         this.remainingPoints = remainingPoints;
     }
 
+    /**
+     * Copy of this card marked with another status (cached cards are never mutated).
+     */
+    public CourseCardData withStatus(String status) {
+        CourseCardData copy = new CourseCardData(courseWithGrades, recentGrades, categoryBreakdown,
+                upcomingAssignments, trend, remainingPoints);
+        copy.status = status;
+        copy.columns = columns;
+        copy.prediction = prediction;
+        return copy;
+    }
+
+    /**
+     * Copy of this card with another upcoming list (e.g. from the planner).
+     */
+    public CourseCardData withUpcomingAssignments(List<Assignment> upcomingAssignments) {
+        CourseCardData copy = withStatus(status);
+        copy.upcomingAssignments = upcomingAssignments;
+        return copy;
+    }
+
+    public boolean isStale() {
+        return STATUS_STALE.equals(status);
+    }
+
+    public boolean isLoading() {
+        return STATUS_LOADING.equals(status);
+    }
+
     @Override
     public String toString() {
         return "CourseCardData{" +
@@ -38,6 +74,7 @@ public class CourseCardData {
                 ", upcomingAssignments=" + upcomingAssignments +
                 ", trend='" + trend + "'" +
                 ", remainingPoints=" + remainingPoints +
+                ", status='" + status + "'" +
                 '}';
     }
 }
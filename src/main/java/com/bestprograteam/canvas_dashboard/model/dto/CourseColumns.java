@@ -0,0 +1,87 @@
+package com.bestprograteam.canvas_dashboard.model.dto;
+
+import com.bestprograteam.canvas_dashboard.model.entities.Assignment;
+import com.bestprograteam.canvas_dashboard.model.entities.Submission;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Column-oriented copy of one course's assignments joined to their submissions.
+ * Row i describes the i-th assignment of the source list; missing values use sentinels
+ * (NO_ID, NaN, NO_TIME) instead of nulls, so the aggregation math runs over primitive
+ * arrays without unboxing or chasing entity pointers. Built per request from the fetched
+ * entities; the caller supplies the timestamp conversion, since it knows their zone.
+ */
+public class CourseColumns {
+
+    public static final int NO_ID = -1;
+    public static final long NO_TIME = Long.MIN_VALUE;
+
+    public final int size;
+    public final int[] assignmentIds;
+    public final int[] groupIds;          // NO_ID when the assignment has no group
+    public final double[] pointsPossible; // NaN when unknown
+    public final long[] dueAt;            // epoch millis, NO_TIME when there is no due date
+    public final double[] scores;         // NaN when not submitted or not scored
+    public final long[] gradedAt;         // epoch millis, NO_TIME when not graded
+
+    private CourseColumns(int size) {
+        this.size = size;
+        this.assignmentIds = new int[size];
+        this.groupIds = new int[size];
+        this.pointsPossible = new double[size];
+        this.dueAt = new long[size];
+        this.scores = new double[size];
+        this.gradedAt = new long[size];
+    }
+
+    /**
+     * @param submissionFor the submission for an assignment id, or null
+     * @param epochMillis   epoch millis of a (non-null) entity timestamp
+     */
+    public static CourseColumns of(List<Assignment> assignments, Function<Integer, Submission> submissionFor,
+                                   ToLongFunction<LocalDateTime> epochMillis) {
+        CourseColumns columns = new CourseColumns(assignments.size());
+        for (int i = 0; i < columns.size; i++) {
+            Assignment assignment = assignments.get(i);
+            columns.fill(i, assignment, assignment.id != null ? submissionFor.apply(assignment.id) : null, epochMillis);
+        }
+        return columns;
+    }
+
+    /**
+     * One row per recent grade, in list order.
+     */
+    public static CourseColumns ofGrades(List<RecentGrade> grades, ToLongFunction<LocalDateTime> epochMillis) {
+        CourseColumns columns = new CourseColumns(grades.size());
+        for (int i = 0; i < columns.size; i++) {
+            RecentGrade grade = grades.get(i);
+            columns.fill(i, grade.assignment, grade.submission, epochMillis);
+        }
+        return columns;
+    }
+
+    public boolean isScored(int row) {
+        return !Double.isNaN(scores[row]);
+    }
+
+    /**
+     * Score as a percentage of the points possible, NaN when either is missing.
+     */
+    public double percentage(int row) {
+        return (scores[row] / pointsPossible[row]) * 100;
+    }
+
+    private void fill(int row, Assignment assignment, Submission submission, ToLongFunction<LocalDateTime> epochMillis) {
+        assignmentIds[row] = assignment.id != null ? assignment.id : NO_ID;
+        groupIds[row] = assignment.assignmentGroupId != null ? assignment.assignmentGroupId : NO_ID;
+        pointsPossible[row] = assignment.pointsPossible != null ? assignment.pointsPossible : Double.NaN;
+        dueAt[row] = assignment.dueAt != null ? epochMillis.applyAsLong(assignment.dueAt) : NO_TIME;
+        scores[row] = submission != null && submission.score != null ? submission.score : Double.NaN;
+        gradedAt[row] = submission != null && submission.gradedAt != null
+                ? epochMillis.applyAsLong(submission.gradedAt) : NO_TIME;
+    }
+}
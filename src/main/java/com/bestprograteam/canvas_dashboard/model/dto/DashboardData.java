@@ -12,6 +12,7 @@ public class DashboardData {
     public List<CourseCardData> courseCards;
     public List<Assignment> upcomingAssignments;
     public SemesterSummary summary;
+    public boolean partial;               // true when some course cards are stale or still loading
 
     public DashboardData() {}
 
@@ -28,6 +29,7 @@ public class DashboardData {
                 "courseCards=" + courseCards +
                 ", upcomingAssignments=" + upcomingAssignments +
                 ", summary=" + summary +
+                ", partial=" + partial +
                 '}';
     }
 }
@@ -1,13 +1,26 @@
 package com.bestprograteam.canvas_dashboard.model.dto;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 public class PredictionData {
     public double predictedScore;
     public String predictedLetterGrade;
     public List<ChartDataPoint> gradeProgression;
 
+    // Monte Carlo distribution of the final percentage (set when simulatedTrials > 0)
+    public double p10;
+    public double p50;
+    public double p90;
+    public Map<String, Double> letterProbabilities = new LinkedHashMap<>(); // Letter -> probability, A first
+    public int simulatedTrials;
+    public boolean simulationCutShort; // The latency budget ended the simulation before all trials ran
+
+    // Per-course predictions (course id -> prediction from that course alone), next to the aggregate above
+    public Map<String, PredictionData> coursePredictions = new LinkedHashMap<>();
+
     private boolean predictionAvailable;
 
     public PredictionData() {
@@ -22,6 +35,10 @@ public class PredictionData {
         this.predictionAvailable = true;
     }
 
+    public boolean isDistributionAvailable() {
+        return simulatedTrials > 0;
+    }
+
     // Keep this method - it's used in view as th:if="${predictionData.isPredictionAvailable()}"
     public boolean isPredictionAvailable() {
         return predictionAvailable;
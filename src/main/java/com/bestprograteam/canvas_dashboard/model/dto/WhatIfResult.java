@@ -0,0 +1,39 @@
+package com.bestprograteam.canvas_dashboard.model.dto;
+
+/**
+ * DTO returned by the what-if endpoint: course and semester grade with the
+ * hypothetical scores applied so far. Null grades mean nothing counts yet.
+ */
+public class WhatIfResult {
+
+    public String courseId;
+    public Integer assignmentId;
+    public Double courseGrade;        // Weighted course percentage with what-if scores
+    public String courseLetterGrade;
+    public Double semesterGrade;      // Average of the course grades, like SemesterSummary.overallPercentage
+    public boolean weighted;          // Course uses assignment group weights
+
+    public WhatIfResult() {}
+
+    public WhatIfResult(String courseId, Integer assignmentId, Double courseGrade, String courseLetterGrade,
+                        Double semesterGrade, boolean weighted) {
+        this.courseId = courseId;
+        this.assignmentId = assignmentId;
+        this.courseGrade = courseGrade;
+        this.courseLetterGrade = courseLetterGrade;
+        this.semesterGrade = semesterGrade;
+        this.weighted = weighted;
+    }
+
+    @Override
+    public String toString() {
+        return "WhatIfResult{" +
+                "courseId='" + courseId + '\'' +
+                ", assignmentId=" + assignmentId +
+                ", courseGrade=" + courseGrade +
+                ", courseLetterGrade='" + courseLetterGrade + '\'' +
+                ", semesterGrade=" + semesterGrade +
+                ", weighted=" + weighted +
+                '}';
+    }
+}
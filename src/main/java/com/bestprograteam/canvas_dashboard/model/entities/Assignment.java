@@ -10,6 +10,7 @@ public class Assignment {
     public Double pointsPossible;
     public Integer assignmentGroupId;
     public String workflowState;
+    public Submission submission; // Current user's submission when fetched with include[]=submission
 
     public Assignment() {}
 
@@ -12,6 +12,7 @@ public class Course {
     public Date endDate;
     public float totalPoints;
     public float currentGrade;
+    public Enrollment enrollment; // Current user's enrollment when fetched with include[]=total_scores
 
     public Course() {}
 
@@ -4,6 +4,7 @@ import java.time.LocalDateTime;
 
 public class Submission {
     public Integer assignmentId;
+    public Integer courseId; // Set when Canvas reports it (multi-course submission queries)
     public Double score;
     public String workflowState;
     public LocalDateTime gradedAt;
@@ -16,6 +16,14 @@ public interface AssignmentRepository {
      */
     List<Assignment> findAssignmentsByCourseId(Integer courseId);
 
+    /**
+     * Get all assignments for a course with the current user's submission embedded,
+     * so no separate submissions request or join is needed.
+     * @param courseId Canvas course ID
+     * @return List of assignments; Assignment.submission is null when there is no submission
+     */
+    List<Assignment> findAssignmentsWithSubmissions(Integer courseId);
+
     /**
      * Get a specific assignment by ID.
      * @param courseId Canvas course ID
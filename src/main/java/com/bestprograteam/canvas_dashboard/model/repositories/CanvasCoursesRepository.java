@@ -25,7 +25,12 @@ public class CanvasCoursesRepository {
     @Value("${canvas.instance.url}")
     private String canvasInstanceUrl;
 
-    private final RestTemplate restTemplate = new RestTemplate();
+    private final RestTemplate restTemplate;
+
+    public CanvasCoursesRepository(RestTemplate canvasRestTemplate) {
+        this.restTemplate = canvasRestTemplate;
+    }
+
     private String getApiToken() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         if (authentication != null && authentication.isAuthenticated()) {
@@ -14,4 +14,11 @@ public interface CourseRepository {
      * @return List of courses with enrollment_state=active
      */
     List<Course> findAllActiveCourses();
+
+    /**
+     * Get all active courses with the student's enrollment and Canvas-computed grades
+     * filled in (Course.enrollment), so no separate enrollments request is needed.
+     * @return List of courses with enrollment_state=active; Course.enrollment is null when the user is not a student
+     */
+    List<Course> findActiveCoursesWithEnrollments();
 }
@@ -0,0 +1,30 @@
+package com.bestprograteam.canvas_dashboard.model.repositories;
+
+import com.bestprograteam.canvas_dashboard.model.entities.Assignment;
+import com.bestprograteam.canvas_dashboard.model.entities.AssignmentGroup;
+import com.bestprograteam.canvas_dashboard.model.entities.Course;
+import com.bestprograteam.canvas_dashboard.model.entities.Enrollment;
+import com.bestprograteam.canvas_dashboard.model.entities.Submission;
+
+import java.util.List;
+
+/**
+ * Loads everything the dashboard needs for the current user in one go
+ * (instead of one repository call per entity type and course).
+ * Selected with canvas.loader; the per-entity repositories are used otherwise.
+ */
+public interface DashboardBulkLoader {
+
+    /**
+     * Get every active course of the current user with its enrollment, assignments,
+     * submissions and assignment groups.
+     * @return One bundle per active course
+     */
+    List<CourseBundle> loadActiveCourses();
+
+    record CourseBundle(Course course,
+                        Enrollment enrollment,
+                        List<Assignment> assignments,
+                        List<Submission> submissions,
+                        List<AssignmentGroup> assignmentGroups) {}
+}
@@ -1,6 +1,7 @@
 package com.bestprograteam.canvas_dashboard.model.repositories;
 
 import com.bestprograteam.canvas_dashboard.model.entities.Submission;
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -32,4 +33,13 @@ public interface SubmissionRepository {
      * @return List of recent submissions
      */
     List<Submission> findRecentGrades(Integer courseId, Integer limit);
+
+    /**
+     * Get the current student's submissions graded since a point in time, across several courses
+     * in one query. Used to keep a local copy of the submission history up to date.
+     * @param courseIds Canvas course IDs
+     * @param gradedSince Only submissions graded at or after this time
+     * @return Changed submissions (courseId set when Canvas reports it), or null when Canvas could not be reached
+     */
+    List<Submission> findSubmissionsGradedSince(List<Integer> courseIds, LocalDateTime gradedSince);
 }
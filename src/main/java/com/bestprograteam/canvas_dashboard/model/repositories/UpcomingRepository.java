@@ -0,0 +1,20 @@
+package com.bestprograteam.canvas_dashboard.model.repositories;
+
+import com.bestprograteam.canvas_dashboard.model.entities.Assignment;
+
+import java.util.List;
+
+/**
+ * Repository interface for the current student's upcoming work across all courses.
+ * Backed by the Canvas planner, so it does not need any course's full assignment list.
+ */
+public interface UpcomingRepository {
+
+    /**
+     * Get assignments (including graded quizzes and discussions) due within the next N days,
+     * across all courses, sorted by due date.
+     * @param days Number of days to look ahead
+     * @return List of upcoming assignments with courseId set, or null when Canvas could not be reached
+     */
+    List<Assignment> findUpcomingAssignments(Integer days);
+}
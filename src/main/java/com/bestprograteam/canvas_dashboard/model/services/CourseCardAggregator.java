@@ -0,0 +1,184 @@
+package com.bestprograteam.canvas_dashboard.model.services;
+
+import com.bestprograteam.canvas_dashboard.model.adapters.CanvasTimestamps;
+import com.bestprograteam.canvas_dashboard.model.dto.CategoryBreakdown;
+import com.bestprograteam.canvas_dashboard.model.dto.CourseColumns;
+import com.bestprograteam.canvas_dashboard.model.dto.RecentGrade;
+import com.bestprograteam.canvas_dashboard.model.entities.Assignment;
+import com.bestprograteam.canvas_dashboard.model.entities.AssignmentGroup;
+import com.bestprograteam.canvas_dashboard.model.entities.Submission;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Computes everything a course card needs in a single pass over the course's CourseColumns
+ * (assignments joined to their submissions): recent grades, per-group totals, the upcoming
+ * window, remaining points and the inputs for the trend. Per-group totals live in primitive
+ * arrays indexed by group slot, recent grades are ranked by a bounded int heap of row indices
+ * (TopK) and only the upcoming window's rows are sorted, so entities are only touched again for
+ * the rows that end up on the card. The upcoming window is skipped when the caller already has it (from the planner).
+ */
+public class CourseCardAggregator {
+
+    public static final int RECENT_LIMIT = 5;
+    public static final int UPCOMING_DAYS = 7;
+
+    /**
+     * Output of one aggregation; recentPercentages[i] is NaN when grade i has no score or points.
+     */
+    public static class Result {
+        public List<RecentGrade> recentGrades;
+        public List<CategoryBreakdown> categoryBreakdown;
+        public List<Assignment> upcomingAssignments;
+        public double remainingPercentage;
+        public double[] recentPercentages;
+        public CourseColumns columns;
+    }
+
+    private CourseCardAggregator() {}
+
+    /**
+     * @param withUpcoming false leaves {@link Result#upcomingAssignments} empty
+     */
+    public static Result aggregate(List<Assignment> assignments, List<Submission> submissions,
+                                   List<AssignmentGroup> groups, LocalDateTime now, boolean withUpcoming) {
+        CourseIndex index = CourseIndex.build(assignments, submissions);
+        CourseColumns columns = CourseColumns.of(assignments, index::submissionFor, CanvasTimestamps::toEpochMillis);
+        long nowMillis = CanvasTimestamps.toEpochMillis(now);
+        long futureLimitMillis = CanvasTimestamps.toEpochMillis(now.plusDays(UPCOMING_DAYS));
+
+        // Group id -> slot in the accumulator arrays, as a sorted int[] searched without boxing
+        int groupCount = groups.size();
+        GroupSlots slots = new GroupSlots(groups);
+        double[] earned = new double[groupCount];
+        double[] possible = new double[groupCount];
+        int[] completed = new int[groupCount];
+        int[] counted = new int[groupCount];
+
+        TopK recentRows = new TopK(RECENT_LIMIT, (a, b) -> Long.compare(columns.gradedAt[b], columns.gradedAt[a]));
+        // The 7-day window is small and shown in full, so it is collected and sorted rather than ranked
+        int[] upcomingRows = new int[columns.size];
+        int upcomingCount = 0;
+        double totalPossiblePoints = 0.0;
+        double gradedPointsPossible = 0.0;
+
+        for (int row = 0; row < columns.size; row++) {
+            boolean scored = columns.isScored(row);
+            int slot = slots.slotOf(columns.groupIds[row]);
+            if (slot >= 0) {
+                counted[slot]++;
+            }
+
+            double points = columns.pointsPossible[row];
+            if (!Double.isNaN(points)) {
+                totalPossiblePoints += points;
+                if (scored) {
+                    gradedPointsPossible += points;
+                    if (slot >= 0) {
+                        earned[slot] += columns.scores[row];
+                        possible[slot] += points;
+                        completed[slot]++;
+                    }
+                }
+            }
+
+            // A duplicated assignment row must not offer its submission twice
+            if (columns.gradedAt[row] != CourseColumns.NO_TIME
+                    && index.assignment(columns.assignmentIds[row]) == assignments.get(row)) {
+                recentRows.offer(row);
+            }
+
+            long due = columns.dueAt[row];
+            if (withUpcoming && due != CourseColumns.NO_TIME && due > nowMillis && due < futureLimitMillis) {
+                upcomingRows[upcomingCount++] = row;
+            }
+        }
+
+        Result result = new Result();
+        result.columns = columns;
+
+        int[] recent = recentRows.toArray();
+        result.recentGrades = new ArrayList<>(recent.length);
+        result.recentPercentages = new double[recent.length];
+        for (int i = 0; i < recent.length; i++) {
+            int row = recent[i];
+            Assignment assignment = assignments.get(row);
+            result.recentGrades.add(new RecentGrade(index.submissionFor(assignment.id), assignment));
+            result.recentPercentages[i] = columns.percentage(row);
+        }
+
+        // Offset into the window (under 2^31 ms for 7 days) in the high bits, row in the low bits:
+        // sorting the packed longs orders by due date, ties by row
+        long[] upcomingByDue = new long[upcomingCount];
+        for (int i = 0; i < upcomingCount; i++) {
+            upcomingByDue[i] = (columns.dueAt[upcomingRows[i]] - nowMillis) << 32 | upcomingRows[i];
+        }
+        Arrays.sort(upcomingByDue);
+        result.upcomingAssignments = new ArrayList<>(upcomingCount);
+        for (long packed : upcomingByDue) {
+            result.upcomingAssignments.add(assignments.get((int) packed));
+        }
+
+        List<CategoryBreakdown> breakdown = new ArrayList<>(groupCount);
+        for (int i = 0; i < groupCount; i++) {
+            AssignmentGroup group = groups.get(i);
+            int slot = group.id != null ? slots.slotOf(group.id) : -1;
+            if (slot < 0) {
+                breakdown.add(new CategoryBreakdown(group, 0.0, 0, 0, 0, 0));
+                continue;
+            }
+            double currentScore = possible[slot] > 0 ? (earned[slot] * 100.0 / possible[slot]) : 0.0;
+            breakdown.add(new CategoryBreakdown(group, currentScore, (int) earned[slot], (int) possible[slot],
+                    completed[slot], counted[slot]));
+        }
+        result.categoryBreakdown = breakdown;
+
+        // Normalize to percentage (like PredictionService) so all courses show on same scale
+        result.remainingPercentage = totalPossiblePoints > 0
+                ? ((totalPossiblePoints - gradedPointsPossible) / totalPossiblePoints) * 100
+                : 0.0;
+        return result;
+    }
+
+    /**
+     * Maps a group id to the slot of the first group with that id, or -1.
+     */
+    private static class GroupSlots {
+        private final int[] sortedIds;
+        private final int[] slotBySortedId;
+
+        GroupSlots(List<AssignmentGroup> groups) {
+            long[] packed = new long[groups.size()];
+            int count = 0;
+            for (int i = 0; i < groups.size(); i++) {
+                Integer id = groups.get(i).id;
+                if (id != null) {
+                    packed[count++] = ((long) id << 32) | i;
+                }
+            }
+            Arrays.sort(packed, 0, count);
+            int[] ids = new int[count];
+            int[] slotsById = new int[count];
+            int unique = 0;
+            for (int i = 0; i < count; i++) {
+                int id = (int) (packed[i] >> 32);
+                if (unique > 0 && ids[unique - 1] == id) {
+                    continue; // Same id again: the earlier (lower) slot already won
+                }
+                ids[unique] = id;
+                slotsById[unique] = (int) packed[i];
+                unique++;
+            }
+            this.sortedIds = Arrays.copyOf(ids, unique);
+            this.slotBySortedId = Arrays.copyOf(slotsById, unique);
+        }
+
+        int slotOf(int groupId) {
+            int i = Arrays.binarySearch(sortedIds, groupId);
+            return i >= 0 ? slotBySortedId[i] : -1;
+        }
+    }
+}
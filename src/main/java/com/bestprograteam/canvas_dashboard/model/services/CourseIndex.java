@@ -0,0 +1,51 @@
+package com.bestprograteam.canvas_dashboard.model.services;
+
+import com.bestprograteam.canvas_dashboard.model.entities.Assignment;
+import com.bestprograteam.canvas_dashboard.model.entities.Submission;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hash lookups over one course's fetched assignments and submissions, built once per card
+ * so joining submissions to assignments is O(1) instead of a scan.
+ * When Canvas returns duplicates, the first occurrence wins (same as the previous findFirst scans).
+ */
+public class CourseIndex {
+
+    private final Map<Integer, Assignment> assignmentsById;
+    private final Map<Integer, Submission> submissionsByAssignmentId;
+
+    private CourseIndex(Map<Integer, Assignment> assignmentsById,
+                        Map<Integer, Submission> submissionsByAssignmentId) {
+        this.assignmentsById = assignmentsById;
+        this.submissionsByAssignmentId = submissionsByAssignmentId;
+    }
+
+    public static CourseIndex build(List<Assignment> assignments, List<Submission> submissions) {
+        Map<Integer, Assignment> assignmentsById = new HashMap<>(assignments.size() * 2);
+        for (Assignment assignment : assignments) {
+            if (assignment.id != null) {
+                assignmentsById.putIfAbsent(assignment.id, assignment);
+            }
+        }
+
+        Map<Integer, Submission> submissionsByAssignmentId = new HashMap<>(submissions.size() * 2);
+        for (Submission submission : submissions) {
+            if (submission.assignmentId != null) {
+                submissionsByAssignmentId.putIfAbsent(submission.assignmentId, submission);
+            }
+        }
+
+        return new CourseIndex(assignmentsById, submissionsByAssignmentId);
+    }
+
+    public Assignment assignment(Integer assignmentId) {
+        return assignmentsById.get(assignmentId);
+    }
+
+    public Submission submissionFor(Integer assignmentId) {
+        return submissionsByAssignmentId.get(assignmentId);
+    }
+}
@@ -1,234 +1,536 @@
 package com.bestprograteam.canvas_dashboard.model.services;
 
+import com.bestprograteam.canvas_dashboard.model.adapters.CanvasTimestamps;
+import com.bestprograteam.canvas_dashboard.model.adapters.cache.TtlCache;
 import com.bestprograteam.canvas_dashboard.model.dto.*;
 import com.bestprograteam.canvas_dashboard.model.entities.*;
 import com.bestprograteam.canvas_dashboard.model.repositories.*;
-import org.springframework.security.concurrent.DelegatingSecurityContextExecutorService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDateTime;
+import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 
 /**
- * Simplified dashboard service that calls repositories directly.
- * Fetches all data in parallel for maximum performance.
+ * Builds the dashboard for the signed-in user within a latency budget.
+ * Data comes from the bulk loader when one is configured (canvas.loader=graphql), otherwise from
+ * the course list plus two requests per course (assignments with the user's submissions embedded,
+ * and assignment groups) run in parallel on the Canvas executor. Courses that miss the budget
+ * are shown as their last known card or a placeholder.
  */
 @Service
 public class DashboardService {
 
     private final CourseRepository courseRepository;
-    private final EnrollmentRepository enrollmentRepository;
     private final AssignmentRepository assignmentRepository;
-    private final SubmissionRepository submissionRepository;
     private final AssignmentGroupRepository assignmentGroupRepository;
 
     private final ExecutorService executor;
 
+    private long budgetMillis = 8000;
+
+    private PredictionService predictionService;
+
+    private DashboardBulkLoader bulkLoader;
+
+    private UpcomingRepository upcomingRepository;
+
+    // Last successfully built card per (user, course), shown as "stale" when a course misses the budget
+    private TtlCache<CardKey, CourseCardData> lastCards = new TtlCache<>(Duration.ofHours(12), 10_000);
+
+    // Last course list per user, for rendering fallback cards when the course list misses the budget
+    private TtlCache<String, List<Course>> lastCourses = new TtlCache<>(Duration.ofHours(12), 10_000);
+
+    /**
+     * @param canvasExecutor Executor for Canvas fetches (platform or virtual threads, see CanvasExecutorConfig);
+     *                       must propagate the SecurityContext
+     */
+    @Autowired
     public DashboardService(CourseRepository courseRepository,
-                            EnrollmentRepository enrollmentRepository,
                             AssignmentRepository assignmentRepository,
-                            SubmissionRepository submissionRepository,
-                            AssignmentGroupRepository assignmentGroupRepository) {
+                            AssignmentGroupRepository assignmentGroupRepository,
+                            @Qualifier("canvasExecutor") ExecutorService canvasExecutor) {
         this.courseRepository = courseRepository;
-        this.enrollmentRepository = enrollmentRepository;
         this.assignmentRepository = assignmentRepository;
-        this.submissionRepository = submissionRepository;
         this.assignmentGroupRepository = assignmentGroupRepository;
+        this.executor = canvasExecutor;
+    }
+
+
+    /**
+     * When set, each card gets its own course prediction as soon as the course finishes loading,
+     * so per-course predictions are computed in parallel with the remaining Canvas fetches.
+     */
+    @Autowired(required = false)
+    public void setPredictionService(PredictionService predictionService) {
+        this.predictionService = predictionService;
+    }
+
+    /**
+     * When set (canvas.loader=graphql), the dashboard is loaded through it in one or a few
+     * requests; the per-entity repositories remain the fallback if it fails.
+     */
+    @Autowired(required = false)
+    public void setBulkLoader(DashboardBulkLoader bulkLoader) {
+        this.bulkLoader = bulkLoader;
+    }
+
+    /**
+     * When set, the upcoming lists come from one cross-course planner request instead of each
+     * course's assignments, so they are complete even for courses that miss the budget.
+     */
+    @Autowired(required = false)
+    public void setUpcomingRepository(UpcomingRepository upcomingRepository) {
+        this.upcomingRepository = upcomingRepository;
+    }
 
-        // Wrap executor to propagate SecurityContext to child threads
-        this.executor = new DelegatingSecurityContextExecutorService(
-                Executors.newFixedThreadPool(20)
-        );
+    /**
+     * Request-level latency budget. Courses not finished when it passes are shown
+     * as their last known card ("stale") or as a placeholder ("loading").
+     */
+    @Value("${canvas.dashboard.budget-ms:8000}")
+    public void setBudgetMillis(long budgetMillis) {
+        this.budgetMillis = budgetMillis;
     }
 
+    /**
+     * How long and for how many users and courses the last known cards and course lists are kept
+     * for over-budget requests.
+     */
+    @Autowired
+    public void setLastKnownRetention(@Value("${canvas.dashboard.last-known-ttl-hours:12}") long ttlHours,
+                                      @Value("${canvas.dashboard.last-known-max-entries:10000}") int maxEntries) {
+        this.lastCards = new TtlCache<>(Duration.ofHours(ttlHours), maxEntries);
+        this.lastCourses = new TtlCache<>(Duration.ofHours(ttlHours), maxEntries);
+    }
 
     /**
      * Main entry point - fetches ALL dashboard data in parallel.
+     * The fan-out is composed without blocking pool threads: only the calling thread waits,
+     * so worker threads can never all be parents waiting on children that cannot be scheduled.
      */
     public DashboardData getDashboardData() {
         System.out.println("=== DashboardService START ===");
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(budgetMillis);
+        String userId = currentUserId();
+
+        if (bulkLoader != null) {
+            DashboardData bulk = loadInBulk(userId, deadline);
+            if (bulk != null) {
+                System.out.println("=== DashboardService COMPLETE ===");
+                return bulk;
+            }
+        }
 
-        // Step 1: Fetch courses and enrollments in parallel
-        CompletableFuture<List<Course>> coursesFuture = CompletableFuture.supplyAsync(() -> {
-            System.out.println("[1] Fetching courses...");
-            return courseRepository.findAllActiveCourses();
-        }, executor);
+        // Upcoming work across all courses does not depend on the course list, so start it first
+        CompletableFuture<List<Assignment>> upcomingFuture = upcomingRepository != null
+                ? CompletableFuture.supplyAsync(
+                        () -> upcomingRepository.findUpcomingAssignments(CourseCardAggregator.UPCOMING_DAYS), executor)
+                : CompletableFuture.completedFuture(null);
+
+        // Step 1: Fetch courses with the student's enrollment and scores inline (one request)
+        // If it misses the budget, the user's last known courses are shown as their last known cards
+        System.out.println("[1] Fetching courses with enrollments...");
+        List<Course> courses = awaitCourses(
+                CompletableFuture.supplyAsync(courseRepository::findActiveCoursesWithEnrollments, executor), deadline);
+        if (courses == null) {
+            DashboardData late = lateDashboard(userId, userId != null ? lastCourses.get(userId) : null);
+            System.out.println("=== DashboardService COMPLETE ===");
+            return late;
+        }
+        if (userId != null) {
+            lastCourses.put(userId, courses);
+        }
+        List<Enrollment> enrollments = new ArrayList<>(courses.size());
+        for (Course course : courses) {
+            if (course.enrollment != null) {
+                enrollments.add(course.enrollment);
+            }
+        }
+        System.out.println("Found " + courses.size() + " courses, " + enrollments.size() + " enrollments");
 
-        CompletableFuture<List<Enrollment>> enrollmentsFuture = CompletableFuture.supplyAsync(() -> {
-            System.out.println("[2] Fetching enrollments...");
-            return enrollmentRepository.findAllEnrollments();
-        }, executor);
+        // Step 2: For each course, fetch assignments (with submissions embedded) and groups in parallel
+        List<CompletableFuture<CourseCardData>> cardFutures = courses.stream()
+                .map(course -> loadCourseCard(course, userId, upcomingFuture))
+                .collect(Collectors.toList());
 
-        // Wait for courses and enrollments
-        CompletableFuture.allOf(coursesFuture, enrollmentsFuture).join();
-        List<Course> courses = coursesFuture.join();
-        List<Enrollment> enrollments = enrollmentsFuture.join();
+        // Wait for all course cards, but never past the deadline
+        boolean partial = false;
+        try {
+            CompletableFuture.allOf(cardFutures.toArray(new CompletableFuture[0]))
+                    .get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            System.out.println("[!] Latency budget of " + budgetMillis + "ms exceeded, rendering partial dashboard");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            // Per-course failures are already turned into null cards
+        }
 
-        System.out.println("Found " + courses.size() + " courses, " + enrollments.size() + " enrollments");
+        List<Assignment> upcoming = awaitUpcoming(upcomingFuture, deadline);
+        Map<String, List<Assignment>> plannerByCourse = upcoming != null ? byCourse(upcoming) : null;
+
+        // Cards are predicted and remembered only with the upcoming list they are shown with
+        List<CompletableFuture<CourseCardData>> finishedFutures = new ArrayList<>();
+        for (int i = 0; i < courses.size(); i++) {
+            CompletableFuture<CourseCardData> cardFuture = cardFutures.get(i);
+            CourseCardData card = cardFuture.isDone() ? cardFuture.join() : null;
+            if (!cardFuture.isDone()) {
+                // Finished in the background, so the next request can show it as stale
+                cardFuture.thenAcceptAsync(late -> {
+                    if (late != null) {
+                        List<Assignment> plannerNow = plannerResult(upcomingFuture);
+                        finishCard(late, plannerNow != null ? byCourse(plannerNow) : null, userId);
+                    }
+                }, executor);
+            }
+            if (card == null) {
+                card = fallbackCard(courses.get(i), userId, !cardFuture.isDone());
+                partial |= card != null;
+            }
+            if (card != null) {
+                CourseCardData unfinished = card;
+                finishedFutures.add(CompletableFuture.supplyAsync(
+                        () -> finishCard(unfinished, plannerByCourse, userId), executor));
+            }
+        }
+        List<CourseCardData> courseCards = finishedFutures.stream()
+                .map(CompletableFuture::join)
+                .collect(Collectors.toList());
 
-        // Step 2: For each course, fetch assignments, submissions, and groups in parallel
-        List<CompletableFuture<CourseCardData>> cardFutures = courses.stream()
-                .map(course -> CompletableFuture.supplyAsync(() -> {
-                    Integer courseId = Integer.parseInt(course.id);
-                    System.out.println("[Processing] Course " + courseId + " - " + course.name);
+        DashboardData dashboardData = assembleDashboard(courseCards, enrollments, upcoming);
+        dashboardData.partial = partial;
+        System.out.println("=== DashboardService COMPLETE ===");
+        return dashboardData;
+    }
+
+    /**
+     * Course list if it arrives within the budget, otherwise null (late or failed).
+     */
+    private List<Course> awaitCourses(CompletableFuture<List<Course>> coursesFuture, long deadline) {
+        try {
+            return coursesFuture.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            System.out.println("[!] Course list missed the latency budget of " + budgetMillis + "ms, rendering last known courses");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            System.err.println("[✗] Error fetching courses: " + e.getCause().getMessage());
+        }
+        return null;
+    }
+
+    /**
+     * Planner result if it arrives within the budget, otherwise null (cards keep their own lists).
+     */
+    private List<Assignment> awaitUpcoming(CompletableFuture<List<Assignment>> upcomingFuture, long deadline) {
+        try {
+            return upcomingFuture.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            System.out.println("[!] Planner missed the latency budget, using per-course upcoming lists");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            System.err.println("[✗] Error fetching planner items: " + e.getMessage());
+        }
+        return null;
+    }
 
-                    try {
-                        // Fetch all data for this course in parallel
-                        CompletableFuture<List<Assignment>> assignmentsFuture = CompletableFuture.supplyAsync(
-                                () -> assignmentRepository.findAssignmentsByCourseId(courseId), executor);
+    /**
+     * Planner items per course id (each list stays sorted by due date).
+     */
+    private static Map<String, List<Assignment>> byCourse(List<Assignment> upcoming) {
+        Map<String, List<Assignment>> byCourse = new HashMap<>();
+        for (Assignment assignment : upcoming) {
+            byCourse.computeIfAbsent(String.valueOf(assignment.courseId), id -> new ArrayList<>()).add(assignment);
+        }
+        return byCourse;
+    }
 
-                        CompletableFuture<List<Submission>> submissionsFuture = CompletableFuture.supplyAsync(
-                                () -> submissionRepository.findSubmissionsByCourseId(courseId), executor);
+    /**
+     * Gives a card its course's planner items when the planner arrived (null otherwise), then
+     * predicts it if its prediction is missing or was made for another upcoming list.
+     * Fresh cards are remembered; stale ones already are, and placeholders have nothing to predict.
+     */
+    private CourseCardData finishCard(CourseCardData card, Map<String, List<Assignment>> plannerByCourse, String userId) {
+        if (plannerByCourse != null) {
+            List<Assignment> courseUpcoming = plannerByCourse.getOrDefault(card.courseWithGrades.course.id, new ArrayList<>());
+            if (!courseUpcoming.equals(card.upcomingAssignments)) {
+                card = card.withUpcomingAssignments(courseUpcoming);
+                card.prediction = null;
+            }
+        }
+        if (card.isLoading()) {
+            return card;
+        }
+        return completeCard(card, userId, !card.isStale());
+    }
 
-                        CompletableFuture<List<AssignmentGroup>> groupsFuture = CompletableFuture.supplyAsync(
-                                () -> assignmentGroupRepository.findAssignmentGroupsByCourseId(courseId), executor);
+    /**
+     * Fetches one course's assignments (with the user's submissions embedded) and groups in
+     * parallel and builds its card when both complete. Returns a future completing with null when the course fails.
+     * The card takes its upcoming list from the planner if that has already arrived, and is then
+     * predicted and remembered right away. Otherwise it computes its own list as a fallback, and
+     * while the planner is still in flight the card is returned unpredicted for finishCard.
+     */
+    private CompletableFuture<CourseCardData> loadCourseCard(Course course, String userId,
+                                                             CompletableFuture<List<Assignment>> upcomingFuture) {
+        Integer courseId;
+        try {
+            courseId = Integer.parseInt(course.id);
+        } catch (NumberFormatException e) {
+            System.err.println("[✗] Invalid course id " + course.id);
+            return CompletableFuture.completedFuture(null);
+        }
+        System.out.println("[Processing] Course " + courseId + " - " + course.name);
+
+        CompletableFuture<List<Assignment>> assignmentsFuture = CompletableFuture.supplyAsync(
+                () -> assignmentRepository.findAssignmentsWithSubmissions(courseId), executor);
+
+        CompletableFuture<List<AssignmentGroup>> groupsFuture = CompletableFuture.supplyAsync(
+                () -> assignmentGroupRepository.findAssignmentGroupsByCourseId(courseId), executor);
+
+        return assignmentsFuture
+                .thenCombine(groupsFuture, (assignments, groups) -> {
+                    List<Assignment> planner = plannerResult(upcomingFuture);
+                    CourseCardData card = buildCourseCardData(course, course.enrollment, assignments,
+                            embeddedSubmissions(assignments), groups, planner == null);
+                    if (planner != null) {
+                        card.upcomingAssignments = byCourse(planner).getOrDefault(course.id, new ArrayList<>());
+                        return completeCard(card, userId, true);
+                    }
+                    return upcomingFuture.isDone() ? completeCard(card, userId, true) : card;
+                })
+                .exceptionally(e -> {
+                    System.err.println("[✗] Error processing course " + courseId + ": " + e.getMessage());
+                    e.printStackTrace();
+                    return null;
+                });
+    }
 
-                        // Wait for all
-                        CompletableFuture.allOf(assignmentsFuture, submissionsFuture, groupsFuture).join();
+    /**
+     * The planner's items if it has already delivered them, otherwise null (in flight or failed).
+     */
+    private static List<Assignment> plannerResult(CompletableFuture<List<Assignment>> future) {
+        return future.isDone() && !future.isCompletedExceptionally() ? future.join() : null;
+    }
 
-                        List<Assignment> assignments = assignmentsFuture.join();
-                        List<Submission> submissions = submissionsFuture.join();
-                        List<AssignmentGroup> groups = groupsFuture.join();
+    private static List<Submission> embeddedSubmissions(List<Assignment> assignments) {
+        List<Submission> submissions = new ArrayList<>(assignments.size());
+        for (Assignment assignment : assignments) {
+            if (assignment.submission != null) {
+                submissions.add(assignment.submission);
+            }
+        }
+        return submissions;
+    }
 
-                        // Find enrollment for this course
-                        Enrollment enrollment = enrollments.stream()
-                                .filter(e -> e.courseId.equals(courseId))
-                                .findFirst()
-                                .orElse(null);
+    /**
+     * Attaches a card's prediction unless it already has one, and optionally remembers the card.
+     * Called once the card has its final upcoming list, which the prediction depends on.
+     */
+    private CourseCardData completeCard(CourseCardData cardData, String userId, boolean remember) {
+        String courseId = cardData.courseWithGrades.course.id;
+        if (predictionService != null && cardData.prediction == null) {
+            try {
+                cardData.prediction = predictionService.predictCourse(cardData, userId);
+            } catch (RuntimeException e) {
+                System.err.println("[✗] Prediction failed for course " + courseId + ": " + e.getMessage());
+            }
+        }
+        if (remember && userId != null) {
+            // The columns only serve this request (prediction, what-if session), so they are not kept
+            CourseCardData remembered = cardData.withStatus(cardData.status);
+            remembered.columns = null;
+            lastCards.put(new CardKey(userId, courseId), remembered);
+            System.out.println("[✓] Course " + courseId + " complete");
+        }
+        return cardData;
+    }
 
-                        // Build CourseCardData
-                        CourseCardData cardData = buildCourseCardData(course, enrollment, assignments, submissions, groups);
+    /**
+     * Whole dashboard from the bulk loader, within the same budget as the per-course path:
+     * cards are built in parallel once the data is in. When the load misses the budget, every
+     * course is shown through fallbackCard (stale or loading); the load keeps running and its
+     * cards are remembered for the next request.
+     * Returns null when the loader fails, so the caller falls back to the per-entity repositories.
+     */
+    private DashboardData loadInBulk(String userId, long deadline) {
+        // Without a last known course list to fall back on, the course list is fetched alongside, under the same budget
+        List<Course> knownCourses = userId != null ? lastCourses.get(userId) : null;
+        CompletableFuture<List<Course>> coursesFuture = knownCourses != null
+                ? CompletableFuture.completedFuture(knownCourses)
+                : CompletableFuture.supplyAsync(courseRepository::findActiveCoursesWithEnrollments, executor);
+        CompletableFuture<List<CourseCardData>> cardsFuture = CompletableFuture
+                .supplyAsync(bulkLoader::loadActiveCourses, executor)
+                .thenCompose(bundles -> completeBulkCards(bundles, userId));
+        List<CourseCardData> courseCards;
+        try {
+            courseCards = cardsFuture.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            System.out.println("[!] Latency budget of " + budgetMillis + "ms exceeded by the bulk load, rendering partial dashboard");
+            return lateDashboard(userId, coursesFuture.isDone() && !coursesFuture.isCompletedExceptionally()
+                    ? coursesFuture.join() : null);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            System.err.println("[✗] Bulk load failed, falling back to per-course requests: " + e.getCause().getMessage());
+            return null;
+        }
 
-                        System.out.println("[✓] Course " + courseId + " complete");
-                        return cardData;
+        List<Enrollment> enrollments = new ArrayList<>(courseCards.size());
+        for (CourseCardData card : courseCards) {
+            if (card.courseWithGrades.enrollment != null) {
+                enrollments.add(card.courseWithGrades.enrollment);
+            }
+        }
+        return assembleDashboard(courseCards, enrollments, null);
+    }
 
-                    } catch (Exception e) {
-                        System.err.println("[✗] Error processing course " + courseId + ": " + e.getMessage());
-                        e.printStackTrace();
+    /**
+     * Builds the bulk-loaded cards in parallel; a course that fails to build is left out.
+     */
+    private CompletableFuture<List<CourseCardData>> completeBulkCards(List<DashboardBulkLoader.CourseBundle> bundles,
+                                                                      String userId) {
+        System.out.println("Found " + bundles.size() + " courses (bulk)");
+        List<Course> courses = new ArrayList<>(bundles.size());
+        List<CompletableFuture<CourseCardData>> cardFutures = new ArrayList<>(bundles.size());
+        for (DashboardBulkLoader.CourseBundle bundle : bundles) {
+            courses.add(bundle.course());
+            cardFutures.add(CompletableFuture.supplyAsync(() -> completeCard(buildCourseCardData(bundle.course(),
+                    bundle.enrollment(), bundle.assignments(), bundle.submissions(), bundle.assignmentGroups(), true),
+                    userId, true), executor)
+                    .exceptionally(e -> {
+                        System.err.println("[✗] Error processing course " + bundle.course().id + ": " + e.getMessage());
                         return null;
-                    }
-                }, executor))
-                .collect(Collectors.toList());
+                    }));
+        }
+        if (userId != null) {
+            lastCourses.put(userId, courses);
+        }
+        return CompletableFuture.allOf(cardFutures.toArray(new CompletableFuture[0]))
+                .thenApply(done -> cardFutures.stream()
+                        .map(CompletableFuture::join)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toList()));
+    }
 
-        // Wait for all course cards
-        List<CourseCardData> courseCards = cardFutures.stream()
-                .map(CompletableFuture::join)
-                .filter(Objects::nonNull)
-                .collect(Collectors.toList());
+    /**
+     * Dashboard for a load that missed the budget: the given courses (the user's last known list,
+     * or on a first bulk load the course list if it arrived in time) as their last known card or a
+     * "loading" placeholder. Nothing is fetched here, the budget is already spent.
+     */
+    private DashboardData lateDashboard(String userId, List<Course> courses) {
+        if (courses == null) {
+            System.out.println("[!] No course list to fall back on, rendering empty dashboard");
+            courses = List.of();
+        }
+        List<CourseCardData> courseCards = new ArrayList<>(courses.size());
+        List<Enrollment> enrollments = new ArrayList<>(courses.size());
+        for (Course course : courses) {
+            if (course.enrollment != null) {
+                enrollments.add(course.enrollment);
+            }
+            CourseCardData card = fallbackCard(course, userId, true);
+            if (card != null) {
+                courseCards.add(card);
+            }
+        }
+        DashboardData dashboardData = assembleDashboard(courseCards, enrollments, null);
+        dashboardData.partial = true;
+        return dashboardData;
+    }
+
+    /**
+     * Card for a course that is late or failed: its last known card marked stale,
+     * a "loading" placeholder when it is only late, or null (dropped) when it failed.
+     */
+    private CourseCardData fallbackCard(Course course, String userId, boolean late) {
+        CourseCardData previous = userId != null ? lastCards.get(new CardKey(userId, course.id)) : null;
+        if (previous != null) {
+            return previous.withStatus(CourseCardData.STATUS_STALE);
+        }
+        if (!late) {
+            return null;
+        }
+
+        CourseCardData placeholder = new CourseCardData(new CourseWithGrades(course, course.enrollment),
+                new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), "stable", 0.0);
+        placeholder.status = CourseCardData.STATUS_LOADING;
+        return placeholder;
+    }
+
+    private static String currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated() ? authentication.getName() : null;
+    }
 
+    /**
+     * Steps 3 and 4: global upcoming list and semester summary from the finished cards.
+     * @param plannerUpcoming Planner items when they arrived in time (null otherwise); the global list
+     *                        is taken from them directly, so it does not depend on which cards made it
+     */
+    private DashboardData assembleDashboard(List<CourseCardData> courseCards, List<Enrollment> enrollments,
+                                            List<Assignment> plannerUpcoming) {
         System.out.println("Processed " + courseCards.size() + " course cards");
 
-        // Step 3: Calculate upcoming assignments from all courses
-        List<Assignment> allUpcomingAssignments = courseCards.stream()
-                .flatMap(card -> card.upcomingAssignments.stream())
-                .sorted(Comparator.comparing((Assignment a) -> a.dueAt))
-                .limit(10)
-                .collect(Collectors.toList());
+        // Step 3: Upcoming assignments from all courses: the planner's list as is when it arrived,
+        // otherwise a merge of the cards' lists (each already sorted by due date, so no re-sort)
+        List<Assignment> allUpcomingAssignments;
+        if (plannerUpcoming != null) {
+            allUpcomingAssignments = new ArrayList<>(plannerUpcoming.subList(0, Math.min(10, plannerUpcoming.size())));
+        } else {
+            List<List<Assignment>> upcomingPerCourse = new ArrayList<>(courseCards.size());
+            for (CourseCardData card : courseCards) {
+                upcomingPerCourse.add(card.upcomingAssignments);
+            }
+            allUpcomingAssignments = TopK.mergeSorted(
+                    upcomingPerCourse, Comparator.comparing((Assignment a) -> a.dueAt), 10);
+        }
 
         // Step 4: Calculate semester summary
         SemesterSummary summary = calculateSemesterSummary(courseCards, enrollments);
 
-        System.out.println("=== DashboardService COMPLETE ===");
         return new DashboardData(courseCards, allUpcomingAssignments, summary);
     }
 
+
+    private record CardKey(String userId, String courseId) {}
+
     /**
      * Builds CourseCardData from raw repository data.
      */
     private CourseCardData buildCourseCardData(Course course, Enrollment enrollment,
                                                List<Assignment> assignments,
                                                List<Submission> submissions,
-                                               List<AssignmentGroup> groups) {
+                                               List<AssignmentGroup> groups,
+                                               boolean withUpcoming) {
 
         // CourseWithGrades
         CourseWithGrades courseWithGrades = new CourseWithGrades(course, enrollment);
 
-        // Recent grades (last 5)
-        List<RecentGrade> recentGrades = submissions.stream()
-                .filter(s -> s.gradedAt != null)
-                .sorted(Comparator.comparing((Submission s) -> s.gradedAt).reversed())
-                .limit(5)
-                .map(submission -> {
-                    Assignment assignment = assignments.stream()
-                            .filter(a -> a.id.equals(submission.assignmentId))
-                            .findFirst()
-                            .orElse(null);
-                    return assignment != null ? new RecentGrade(submission, assignment) : null;
-                })
-                .filter(Objects::nonNull)
-                .collect(Collectors.toList());
-
-        // Category breakdown
-        List<CategoryBreakdown> categoryBreakdown = groups.stream()
-                .map(group -> {
-                    List<Assignment> groupAssignments = assignments.stream()
-                            .filter(a -> a.assignmentGroupId != null && a.assignmentGroupId.equals(group.id))
-                            .collect(Collectors.toList());
-
-                    double earnedPoints = 0.0;
-                    double totalPoints = 0.0;
-                    int completedCount = 0;
-
-                    for (Assignment assignment : groupAssignments) {
-                        if (assignment.pointsPossible != null) {
-                            Submission submission = submissions.stream()
-                                    .filter(s -> s.assignmentId.equals(assignment.id))
-                                    .findFirst()
-                                    .orElse(null);
-
-                            if (submission != null && submission.score != null) {
-                                earnedPoints += submission.score;
-                                totalPoints += assignment.pointsPossible;
-                                completedCount++;
-                            }
-                        }
-                    }
-
-                    double currentScore = totalPoints > 0 ? (earnedPoints * 100.0 / totalPoints) : 0.0;
-                    return new CategoryBreakdown(group, currentScore, (int) earnedPoints, (int) totalPoints,
-                            completedCount, groupAssignments.size());
-                })
-                .collect(Collectors.toList());
-
-        // Upcoming assignments (next 7 days)
-        LocalDateTime now = LocalDateTime.now();
-        LocalDateTime futureLimit = now.plusDays(7);
-        List<Assignment> upcomingAssignments = assignments.stream()
-                .filter(a -> a.dueAt != null)
-                .filter(a -> a.dueAt.isAfter(now) && a.dueAt.isBefore(futureLimit))
-                .sorted(Comparator.comparing((Assignment a) -> a.dueAt))
-                .collect(Collectors.toList());
+        // One pass over assignments joined to their submissions
+        CourseCardAggregator.Result aggregate = CourseCardAggregator.aggregate(
+                assignments, submissions, groups, CanvasTimestamps.now(), withUpcoming);
 
         // Trend calculation (simple version based on recent grades)
-        String trend = calculateTrend(recentGrades);
+        String trend = calculateTrend(aggregate.recentPercentages);
 
-        // Calculate remaining points
-        double totalPossiblePoints = assignments.stream()
-                .filter(a -> a.pointsPossible != null)
-                .mapToDouble(a -> a.pointsPossible)
-                .sum();
-
-        double gradedPointsPossible = 0.0;
-        for (Assignment assignment : assignments) {
-            if (assignment.pointsPossible != null) {
-                boolean isGraded = submissions.stream()
-                    .anyMatch(s -> s.assignmentId.equals(assignment.id) && s.score != null);
-                if (isGraded) {
-                    gradedPointsPossible += assignment.pointsPossible;
-                }
-            }
-        }
-
-        // Normalize to percentage (like PredictionService) so all courses show on same scale
-        double remainingPercentage = totalPossiblePoints > 0
-            ? ((totalPossiblePoints - gradedPointsPossible) / totalPossiblePoints) * 100
-            : 0.0;
-
-        return new CourseCardData(courseWithGrades, recentGrades, categoryBreakdown, upcomingAssignments, trend, remainingPercentage);
+        CourseCardData cardData = new CourseCardData(courseWithGrades, aggregate.recentGrades,
+                aggregate.categoryBreakdown, aggregate.upcomingAssignments, trend, aggregate.remainingPercentage);
+        cardData.columns = aggregate.columns;
+        return cardData;
     }
 
     /**
@@ -295,26 +597,15 @@ public class DashboardService {
         return summary;
     }
 
-    private String calculateTrend(List<RecentGrade> recentGrades) {
-        if (recentGrades.size() < 2) {
+    private String calculateTrend(double[] recentPercentages) {
+        if (recentPercentages.length < 2) {
             return "stable";
         }
 
         // Compare first half vs second half of recent grades
-        int halfSize = recentGrades.size() / 2;
-        double firstHalfAvg = recentGrades.stream()
-                .limit(halfSize)
-                .filter(g -> g.submission.score != null && g.assignment.pointsPossible != null)
-                .mapToDouble(g -> (g.submission.score / g.assignment.pointsPossible) * 100)
-                .average()
-                .orElse(0.0);
-
-        double secondHalfAvg = recentGrades.stream()
-                .skip(halfSize)
-                .filter(g -> g.submission.score != null && g.assignment.pointsPossible != null)
-                .mapToDouble(g -> (g.submission.score / g.assignment.pointsPossible) * 100)
-                .average()
-                .orElse(0.0);
+        int halfSize = recentPercentages.length / 2;
+        double firstHalfAvg = average(recentPercentages, 0, halfSize);
+        double secondHalfAvg = average(recentPercentages, halfSize, recentPercentages.length);
 
         if (firstHalfAvg > secondHalfAvg + 5) {
             return "up";
@@ -325,6 +616,21 @@ public class DashboardService {
         }
     }
 
+    /**
+     * Mean of the non-NaN values in [from, to), or 0.0 when there are none.
+     */
+    private static double average(double[] values, int from, int to) {
+        double sum = 0.0;
+        int count = 0;
+        for (int i = from; i < to; i++) {
+            if (!Double.isNaN(values[i])) {
+                sum += values[i];
+                count++;
+            }
+        }
+        return count > 0 ? sum / count : 0.0;
+    }
+
     private String calculateOverallTrend(List<CourseCardData> courseCards) {
         if (courseCards.isEmpty()) {
             return "stable";
@@ -0,0 +1,146 @@
+package com.bestprograteam.canvas_dashboard.model.services;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Monte Carlo simulation of the final percentage: every trial draws a score for each
+ * ungraded assignment from a normal distribution (clamped to 0-100%) and adds it to the
+ * points already earned. Trials run in fixed-size chunks on a fork-join pool, each chunk
+ * with its own SplittableRandom split from the parent, writing into one primitive array.
+ * Chunks that would start after the latency budget are skipped, so the result is built
+ * from however many trials finished in time.
+ */
+@Component
+public class GradeSimulator {
+
+    private static final int CHUNK = 512;
+
+    private final ForkJoinPool pool;
+    private final int trials;
+    private final long budgetNanos;
+
+    @Autowired
+    public GradeSimulator(@Value("${canvas.prediction.simulation-trials:10000}") int trials,
+                          @Value("${canvas.prediction.simulation-budget-ms:150}") long budgetMillis) {
+        this(ForkJoinPool.commonPool(), trials, budgetMillis);
+    }
+
+    public GradeSimulator(ForkJoinPool pool, int trials, long budgetMillis) {
+        this.pool = pool;
+        this.trials = trials;
+        this.budgetNanos = budgetMillis * 1_000_000L;
+    }
+
+    /**
+     * Trials a simulation runs when it finishes within the budget.
+     */
+    public int trials() {
+        return trials;
+    }
+
+    /**
+     * @param points        points possible of each ungraded assignment
+     * @param meanPercent   expected percentage of each ungraded assignment
+     * @param stdDevPercent spread of each ungraded assignment's percentage (0 = deterministic)
+     * @return sorted final percentages of the completed trials (possibly fewer than requested)
+     */
+    public double[] simulate(double earnedPoints, double possiblePoints,
+                             double[] points, double[] meanPercent, double[] stdDevPercent, long seed) {
+        if (possiblePoints <= 0 || trials <= 0) {
+            return new double[0];
+        }
+        double[] results = new double[trials];
+        int[] completed = new int[(trials + CHUNK - 1) / CHUNK];
+        long deadline = System.nanoTime() + budgetNanos;
+        Trials task = new Trials(new Model(earnedPoints, possiblePoints, points, meanPercent, stdDevPercent),
+                results, completed, 0, completed.length, new SplittableRandom(seed), deadline);
+        pool.invoke(task);
+
+        // Compact the chunks that ran, then sort for percentiles
+        int total = 0;
+        for (int chunk = 0; chunk < completed.length; chunk++) {
+            int start = chunk * CHUNK;
+            System.arraycopy(results, start, results, total, completed[chunk]);
+            total += completed[chunk];
+        }
+        double[] finished = Arrays.copyOf(results, total);
+        Arrays.sort(finished);
+        return finished;
+    }
+
+    /**
+     * Value at quantile q (0..1) of a sorted array, by nearest rank.
+     */
+    public static double percentile(double[] sorted, double q) {
+        if (sorted.length == 0) {
+            return Double.NaN;
+        }
+        int rank = (int) Math.ceil(q * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, rank))];
+    }
+
+    private record Model(double earnedPoints, double possiblePoints,
+                         double[] points, double[] meanPercent, double[] stdDevPercent) {
+
+        double trial(SplittableRandom random) {
+            double total = earnedPoints;
+            for (int i = 0; i < points.length; i++) {
+                double percent = stdDevPercent[i] > 0
+                        ? meanPercent[i] + stdDevPercent[i] * random.nextGaussian()
+                        : meanPercent[i];
+                total += Math.max(0, Math.min(100, percent)) / 100 * points[i];
+            }
+            return total / possiblePoints * 100;
+        }
+    }
+
+    /**
+     * Runs chunks [from, to); splits in half until one chunk is left.
+     */
+    private static class Trials extends RecursiveAction {
+        private final Model model;
+        private final double[] results;
+        private final int[] completed;
+        private final int from;
+        private final int to;
+        private final SplittableRandom random;
+        private final long deadline;
+
+        Trials(Model model, double[] results, int[] completed, int from, int to,
+               SplittableRandom random, long deadline) {
+            this.model = model;
+            this.results = results;
+            this.completed = completed;
+            this.from = from;
+            this.to = to;
+            this.random = random;
+            this.deadline = deadline;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new Trials(model, results, completed, from, mid, random.split(), deadline),
+                        new Trials(model, results, completed, mid, to, random, deadline));
+                return;
+            }
+            if (System.nanoTime() > deadline) {
+                return; // Over budget: this chunk contributes no trials
+            }
+            int start = from * CHUNK;
+            int end = Math.min(results.length, start + CHUNK);
+            for (int i = start; i < end; i++) {
+                results[i] = model.trial(random);
+            }
+            completed[from] = end - start;
+        }
+    }
+}
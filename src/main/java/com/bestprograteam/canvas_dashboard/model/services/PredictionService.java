@@ -1,164 +1,383 @@
 package com.bestprograteam.canvas_dashboard.model.services;
 
 import com.bestprograteam.canvas_dashboard.model.dto.ChartDataPoint;
+import com.bestprograteam.canvas_dashboard.model.dto.CourseCardData;
+import com.bestprograteam.canvas_dashboard.model.dto.CourseColumns;
 import com.bestprograteam.canvas_dashboard.model.dto.DashboardData;
 import com.bestprograteam.canvas_dashboard.model.dto.PredictionData;
 import com.bestprograteam.canvas_dashboard.model.dto.RecentGrade;
 import com.bestprograteam.canvas_dashboard.model.entities.Assignment;
+import com.bestprograteam.canvas_dashboard.model.adapters.CanvasTimestamps;
+import com.bestprograteam.canvas_dashboard.model.adapters.cache.TtlCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
-import java.time.Instant;
-import java.time.ZoneOffset;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
 
 @Service
 public class PredictionService {
 
-    private record DataPoint(double x, double y) {}
+    private static final String[] LETTERS = {"A", "A-", "B+", "B", "B-", "C+", "C", "C-", "D+", "D", "D-", "F"};
+
+    private final RegressionStateStore regressionStates;
+    private final GradeSimulator gradeSimulator;
+
+    // Per-course predictions by (user, course, content hash); unchanged courses are never recomputed
+    private final TtlCache<CourseMemoKey, PredictionData> coursePredictions = new TtlCache<>(Duration.ofHours(12), 10_000);
+
+    private record CourseMemoKey(String userId, String courseId, long contentHash) {}
+
+    public PredictionService() {
+        this(new RegressionStateStore(720, 5000), new GradeSimulator(10_000, 150));
+    }
+
+    @Autowired
+    public PredictionService(RegressionStateStore regressionStates, GradeSimulator gradeSimulator) {
+        this.regressionStates = regressionStates;
+        this.gradeSimulator = gradeSimulator;
+    }
 
     public PredictionData calculatePredictions(DashboardData dashboardData) {
-        List<Assignment> allAssignments = new ArrayList<>();
-        List<RecentGrade> gradedRecentGrades = new ArrayList<>();
+        String userId = currentUserId();
+        List<CourseCardData> courseCards = dashboardData.courseCards;
+        List<RegressionState> courseStates = new ArrayList<>(courseCards.size());
+        for (int i = 0; i < courseCards.size(); i++) {
+            courseStates.add(observedState(courseCards.get(i), userId));
+        }
+
+        PredictionData prediction = predict(courseCards, courseStates);
+
+        // Per-course entries: cards normally carry theirs (computed as each course finished loading);
+        // any missing ones are computed here in parallel, memoized like the others
+        List<PredictionData> perCourse = IntStream.range(0, courseCards.size()).parallel()
+                .mapToObj(i -> {
+                    CourseCardData courseCard = courseCards.get(i);
+                    if (courseCard.isLoading()) {
+                        return null;
+                    }
+                    return courseCard.prediction != null ? courseCard.prediction : predictCourse(courseCard, userId);
+                })
+                .toList();
+        for (int i = 0; i < courseCards.size(); i++) {
+            if (perCourse.get(i) != null) {
+                prediction.coursePredictions.put(courseKey(courseCards.get(i), i), perCourse.get(i));
+            }
+        }
+        return prediction;
+    }
 
-        dashboardData.courseCards.forEach(courseCard -> {
-            gradedRecentGrades.addAll(courseCard.recentGrades);
+    /**
+     * Prediction from one course's data alone. Memoized per user by a content hash of the
+     * course's graded submissions and remaining assignments, so an unchanged course is a lookup.
+     * Only predictions whose simulation ran all its trials are memoized.
+     * A card without a course id is computed from scratch every time.
+     */
+    public PredictionData predictCourse(CourseCardData courseCard, String userId) {
+        String courseId = courseId(courseCard);
+        CourseMemoKey key = userId != null && courseId != null
+                ? new CourseMemoKey(userId, courseId, contentHash(courseCard)) : null;
+        if (key != null) {
+            PredictionData memoized = coursePredictions.get(key);
+            if (memoized != null) {
+                return memoized;
+            }
+        }
+        RegressionState state = observedState(courseCard, userId);
+        PredictionData prediction = predict(List.of(courseCard), List.of(state));
+        if (key != null && !prediction.simulationCutShort) {
+            coursePredictions.put(key, prediction); // A band cut short by the budget is recomputed next time
+        }
+        return prediction;
+    }
 
-            // Add all assignments to a single list, avoiding duplicates
-            courseCard.recentGrades.forEach(rg -> {
-                if (allAssignments.stream().noneMatch(a -> a.id.equals(rg.assignment.id))) {
+    /**
+     * The course's regression state (kept per signed-in user and course id, throwaway otherwise) holding
+     * every graded submission of the course: new and regraded ones are fed in, ones no longer graded
+     * (e.g. excused) are removed. A card without per-assignment columns (a placeholder or a remembered
+     * card) only adds its recent grades, since it cannot tell which grades went away.
+     */
+    private RegressionState observedState(CourseCardData courseCard, String userId) {
+        String courseId = courseId(courseCard);
+        RegressionState state = userId != null && courseId != null
+                ? regressionStates.state(userId, courseId)
+                : new RegressionState();
+        CourseColumns columns = courseCard.columns;
+        if (columns == null) {
+            for (RecentGrade rg : courseCard.recentGrades) {
+                if (isObservable(rg)) {
+                    state.observe(rg.assignment.id, epochMillis(rg.submission.gradedAt),
+                            (rg.submission.score / rg.assignment.pointsPossible) * 100);
+                }
+            }
+            return state;
+        }
+        Set<Integer> observedIds = new HashSet<>();
+        for (int row = 0; row < columns.size; row++) {
+            if (isObservable(columns, row)) {
+                observedIds.add(columns.assignmentIds[row]);
+            }
+        }
+        state.retainOnly(observedIds);
+        for (int row = 0; row < columns.size; row++) {
+            if (isObservable(columns, row)) {
+                state.observe(columns.assignmentIds[row], columns.gradedAt[row], columns.percentage(row));
+            }
+        }
+        return state;
+    }
+
+    private PredictionData predict(List<CourseCardData> courseCards, List<RegressionState> courseStates) {
+        // Gather graded work and the distinct assignments (by id) in one pass over the cards
+        List<RecentGrade> gradedRecentGrades = new ArrayList<>();
+        List<Assignment> allAssignments = new ArrayList<>();
+        Set<Integer> seenAssignmentIds = new HashSet<>();
+        for (CourseCardData courseCard : courseCards) {
+            for (RecentGrade rg : courseCard.recentGrades) {
+                gradedRecentGrades.add(rg);
+                if (seenAssignmentIds.add(rg.assignment.id)) {
                     allAssignments.add(rg.assignment);
                 }
-            });
-            courseCard.upcomingAssignments.forEach(ua -> {
-                if (allAssignments.stream().noneMatch(a -> a.id.equals(ua.id))) {
+            }
+            for (Assignment ua : courseCard.upcomingAssignments) {
+                if (seenAssignmentIds.add(ua.id)) {
                     allAssignments.add(ua);
                 }
-            });
-        });
-
-        // Sort graded assignments chronologically for processing
-        gradedRecentGrades.sort(Comparator.comparing(rg -> rg.submission.gradedAt));
+            }
+        }
 
         if (gradedRecentGrades.size() < 5) {
             return new PredictionData(); // Not enough data
         }
 
-        // Generate Grade Progression Chart Data
-        List<ChartDataPoint> gradeProgression = generateGradeProgression(gradedRecentGrades);
+        // Sort graded assignments chronologically for processing
+        gradedRecentGrades.sort(Comparator.comparing(rg -> rg.submission.gradedAt));
 
-        // --- Linear Regression Calculation ---
-        Instant firstGradedDate = gradedRecentGrades.get(0).submission.gradedAt.atZone(ZoneOffset.UTC).toInstant();
-        List<DataPoint> dataPoints = new ArrayList<>();
-        for (RecentGrade rg : gradedRecentGrades) {
-            Assignment assignment = rg.assignment;
-            if (assignment.pointsPossible > 0 && rg.submission.score != null) {
-                double x = Duration.between(firstGradedDate, rg.submission.gradedAt.atZone(ZoneOffset.UTC).toInstant()).toDays();
-                double y = (rg.submission.score / assignment.pointsPossible) * 100;
-                dataPoints.add(new DataPoint(x, y));
+        // One sweep over the graded columns: earned points and the progression chart
+        CourseColumns graded = CourseColumns.ofGrades(gradedRecentGrades, CanvasTimestamps::toEpochMillis);
+        Set<Integer> gradedAssignmentIds = new HashSet<>();
+        List<ChartDataPoint> gradeProgression = new ArrayList<>();
+        Map<Integer, double[]> groupStats = new HashMap<>(); // group id -> {n, mean, m2} of percentages
+        double totalEarnedPoints = 0;
+        double cumulativeScore = 0;
+        double cumulativePossiblePoints = 0;
+        int assignmentCount = 0;
+        for (int row = 0; row < graded.size; row++) {
+            gradedAssignmentIds.add(gradedRecentGrades.get(row).assignment.id);
+            if (!graded.isScored(row)) {
+                continue;
+            }
+            double score = graded.scores[row];
+            double points = graded.pointsPossible[row];
+            totalEarnedPoints += score;
+            if (points > 0 && graded.groupIds[row] != CourseColumns.NO_ID) {
+                double[] stats = groupStats.computeIfAbsent(graded.groupIds[row], id -> new double[3]);
+                double percent = graded.percentage(row);
+                double delta = percent - stats[1];
+                stats[0]++;
+                stats[1] += delta / stats[0];
+                stats[2] += delta * (percent - stats[1]);
             }
-        }
 
-        if (dataPoints.size() < 5) {
-            return new PredictionData(); // Not enough valid data points for regression
+            // Grade Progression Chart Data
+            if (!Double.isNaN(points)) {
+                assignmentCount++;
+                cumulativeScore += score;
+                cumulativePossiblePoints += points;
+                if (cumulativePossiblePoints > 0) {
+                    double currentOverall = (cumulativeScore / cumulativePossiblePoints) * 100;
+                    gradeProgression.add(new ChartDataPoint("Assign. " + assignmentCount, currentOverall));
+                }
+            }
         }
 
-        double sumX = 0, sumY = 0, sumXY = 0, sumX2 = 0;
-        for (DataPoint p : dataPoints) {
-            sumX += p.x();
-            sumY += p.y();
-            sumXY += p.x() * p.y();
-            sumX2 += p.x() * p.x();
+        // --- Linear Regression Calculation --- (merge of the per-course online states)
+        RegressionState regression = RegressionState.merge(courseStates);
+        if (regression.count() < 5) {
+            return new PredictionData(); // Not enough valid data points for regression
         }
-
-        int n = dataPoints.size();
-        double denominator = n * sumX2 - Math.pow(sumX, 2);
-        if (denominator == 0) {
+        if (!regression.hasSlope()) {
             return new PredictionData(); // Avoid division by zero (all x values are the same)
         }
-        double slope = (n * sumXY - sumX * sumY) / denominator;
-        double intercept = (sumY - slope * sumX) / n;
-
-        // --- Predict Future Scores ---
-        List<Integer> gradedAssignmentIds = gradedRecentGrades.stream()
-                .map(rg -> rg.assignment.id)
-                .toList();
-
-        List<Assignment> ungradedAssignments = allAssignments.stream()
-                .filter(a -> !gradedAssignmentIds.contains(a.id))
-                .toList();
 
+        // --- Predict Future Scores --- (one sweep over the distinct assignments)
+        CourseColumns all = CourseColumns.of(allAssignments, id -> null, CanvasTimestamps::toEpochMillis);
+        long nowMillis = System.currentTimeMillis();
         double totalPredictedPoints = 0;
-        for (Assignment assignment : ungradedAssignments) {
-            if (assignment.pointsPossible > 0) {
-                Instant predictionTime = assignment.dueAt != null ? assignment.dueAt.atZone(ZoneOffset.UTC).toInstant() : Instant.now();
-                double x = Duration.between(firstGradedDate, predictionTime).toDays();
-                double predictedScorePercentage = slope * x + intercept;
+        double totalPossiblePoints = 0;
+        double overallStdDev = Math.sqrt(regression.varianceY());
+        double[] ungradedPoints = new double[all.size];
+        double[] ungradedMeans = new double[all.size];
+        double[] ungradedStdDevs = new double[all.size];
+        int ungraded = 0;
+        for (int row = 0; row < all.size; row++) {
+            double points = all.pointsPossible[row];
+            if (Double.isNaN(points)) {
+                continue;
+            }
+            totalPossiblePoints += points;
+            if (points > 0 && !gradedAssignmentIds.contains(allAssignments.get(row).id)) {
+                long predictionTime = all.dueAt[row] != CourseColumns.NO_TIME ? all.dueAt[row] : nowMillis;
+                double predictedScorePercentage = regression.predict(predictionTime);
                 predictedScorePercentage = Math.max(0, Math.min(100, predictedScorePercentage)); // Clamp
-                totalPredictedPoints += (predictedScorePercentage / 100) * assignment.pointsPossible;
+                totalPredictedPoints += (predictedScorePercentage / 100) * points;
+
+                // Simulation input: the assignment group's distribution, else the trend line with overall spread
+                double[] stats = groupStats.get(all.groupIds[row]);
+                ungradedPoints[ungraded] = points;
+                if (stats != null && stats[0] >= 2) {
+                    ungradedMeans[ungraded] = stats[1];
+                    ungradedStdDevs[ungraded] = Math.sqrt(stats[2] / (stats[0] - 1));
+                } else {
+                    ungradedMeans[ungraded] = predictedScorePercentage;
+                    ungradedStdDevs[ungraded] = overallStdDev;
+                }
+                ungraded++;
             }
         }
 
         // --- Calculate Final Grade ---
-        double totalEarnedPoints = gradedRecentGrades.stream()
-                .mapToDouble(rg -> rg.submission.score != null ? rg.submission.score : 0)
-                .sum();
-
-        double totalPossiblePoints = allAssignments.stream()
-                .mapToDouble(a -> a.pointsPossible)
-                .sum();
-
         if (totalPossiblePoints == 0) {
             return new PredictionData();
         }
 
-        System.out.println(totalEarnedPoints + " / " + totalPossiblePoints);
         double finalPredictedPercentage = ((totalEarnedPoints + totalPredictedPoints) / totalPossiblePoints) * 100;
         String letterGrade = convertToLetterGrade(finalPredictedPercentage);
+        PredictionData prediction = new PredictionData(finalPredictedPercentage, letterGrade, gradeProgression);
 
-        System.out.println(gradeProgression);
-        System.out.println(finalPredictedPercentage);
-        System.out.println(letterGrade);
-        return new PredictionData(finalPredictedPercentage, letterGrade, gradeProgression);
+        // --- Final Grade Distribution --- (seeded from the inputs so a refresh shows the same band)
+        long seed = Double.doubleToLongBits(totalEarnedPoints) * 31 + Double.doubleToLongBits(totalPossiblePoints);
+        double[] outcomes = gradeSimulator.simulate(totalEarnedPoints, totalPossiblePoints,
+                Arrays.copyOf(ungradedPoints, ungraded), Arrays.copyOf(ungradedMeans, ungraded),
+                Arrays.copyOf(ungradedStdDevs, ungraded), seed);
+        applyDistribution(prediction, outcomes);
+        prediction.simulationCutShort = outcomes.length < gradeSimulator.trials();
+        return prediction;
     }
 
-    private List<ChartDataPoint> generateGradeProgression(List<RecentGrade> gradedRecentGrades) {
-        List<ChartDataPoint> progression = new ArrayList<>();
-        double cumulativeScore = 0;
-        double cumulativePossiblePoints = 0;
-        int assignmentCount = 0;
-
-        for (RecentGrade rg : gradedRecentGrades) {
-            if (rg.submission.score == null || rg.assignment.pointsPossible == null) {
-                continue;
+    /**
+     * 64-bit FNV-1a over everything a course prediction reads: each recent grade and each graded
+     * row of the columns (assignment, score, points, graded time), and each remaining assignment
+     * (id, points, due).
+     */
+    static long contentHash(CourseCardData courseCard) {
+        long hash = 0xcbf29ce484222325L;
+        for (RecentGrade rg : courseCard.recentGrades) {
+            hash = mix(hash, rg.assignment.id != null ? rg.assignment.id : CourseColumns.NO_ID);
+            hash = mix(hash, rg.submission.score != null ? Double.doubleToLongBits(rg.submission.score) : 0L);
+            hash = mix(hash, rg.assignment.pointsPossible != null ? Double.doubleToLongBits(rg.assignment.pointsPossible) : 0L);
+            hash = mix(hash, epochMillis(rg.submission.gradedAt));
+        }
+        CourseColumns columns = courseCard.columns;
+        if (columns != null) {
+            hash = mix(hash, -2L); // Separates recent from all graded
+            for (int row = 0; row < columns.size; row++) {
+                if (isObservable(columns, row)) {
+                    hash = mix(hash, columns.assignmentIds[row]);
+                    hash = mix(hash, Double.doubleToLongBits(columns.scores[row]));
+                    hash = mix(hash, Double.doubleToLongBits(columns.pointsPossible[row]));
+                    hash = mix(hash, columns.gradedAt[row]);
+                }
             }
+        }
+        hash = mix(hash, -1L); // Separates graded from upcoming
+        for (Assignment ua : courseCard.upcomingAssignments) {
+            hash = mix(hash, ua.id != null ? ua.id : CourseColumns.NO_ID);
+            hash = mix(hash, ua.pointsPossible != null ? Double.doubleToLongBits(ua.pointsPossible) : 0L);
+            hash = mix(hash, epochMillis(ua.dueAt));
+        }
+        return hash;
+    }
 
-            assignmentCount++;
-            cumulativeScore += rg.submission.score;
-            cumulativePossiblePoints += rg.assignment.pointsPossible;
-            if (cumulativePossiblePoints > 0) {
-                double currentOverall = (cumulativeScore / cumulativePossiblePoints) * 100;
-                progression.add(new ChartDataPoint("Assign. " + assignmentCount, currentOverall));
-            }
+    private static long mix(long hash, long value) {
+        for (int i = 0; i < 8; i++) {
+            hash ^= (value >>> (i * 8)) & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private void applyDistribution(PredictionData prediction, double[] sortedOutcomes) {
+        if (sortedOutcomes.length == 0) {
+            return;
+        }
+        prediction.simulatedTrials = sortedOutcomes.length;
+        prediction.p10 = GradeSimulator.percentile(sortedOutcomes, 0.10);
+        prediction.p50 = GradeSimulator.percentile(sortedOutcomes, 0.50);
+        prediction.p90 = GradeSimulator.percentile(sortedOutcomes, 0.90);
+
+        int[] counts = new int[LETTERS.length];
+        for (double outcome : sortedOutcomes) {
+            counts[letterIndex(outcome)]++;
         }
-        return progression;
-    }
-
-    private String convertToLetterGrade(double percentage) {
-        if (percentage >= 93) return "A";
-        if (percentage >= 90) return "A-";
-        if (percentage >= 87) return "B+";
-        if (percentage >= 83) return "B";
-        if (percentage >= 80) return "B-";
-        if (percentage >= 77) return "C+";
-        if (percentage >= 73) return "C";
-        if (percentage >= 70) return "C-";
-        if (percentage >= 67) return "D+";
-        if (percentage >= 63) return "D";
-        if (percentage >= 60) return "D-";
-        return "F";
+        for (int i = 0; i < LETTERS.length; i++) {
+            prediction.letterProbabilities.put(LETTERS[i], (double) counts[i] / sortedOutcomes.length);
+        }
+    }
+
+    /**
+     * Only graded, scored assignments with known points feed the regression.
+     */
+    private static boolean isObservable(RecentGrade rg) {
+        Double points = rg.assignment.pointsPossible;
+        return rg.assignment.id != null && rg.submission.gradedAt != null && rg.submission.score != null
+                && points != null && points > 0;
+    }
+
+    private static boolean isObservable(CourseColumns columns, int row) {
+        return columns.assignmentIds[row] != CourseColumns.NO_ID && columns.gradedAt[row] != CourseColumns.NO_TIME
+                && columns.isScored(row) && columns.pointsPossible[row] > 0;
+    }
+
+    /**
+     * Entity timestamps are wall-clock time in the dashboard's zone (see CanvasTimestamps).
+     */
+    private static long epochMillis(LocalDateTime time) {
+        return time != null ? CanvasTimestamps.toEpochMillis(time) : CourseColumns.NO_TIME;
+    }
+
+    private static String courseKey(CourseCardData courseCard, int index) {
+        String courseId = courseId(courseCard);
+        return courseId != null ? courseId : "card-" + index;
+    }
+
+    private static String courseId(CourseCardData courseCard) {
+        return courseCard.courseWithGrades != null && courseCard.courseWithGrades.course != null
+                ? courseCard.courseWithGrades.course.id : null;
+    }
+
+    private static String currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated() ? authentication.getName() : null;
+    }
+
+    static String convertToLetterGrade(double percentage) {
+        return LETTERS[letterIndex(percentage)];
+    }
+
+    private static int letterIndex(double percentage) {
+        if (percentage >= 93) return 0;
+        if (percentage >= 90) return 1;
+        if (percentage >= 87) return 2;
+        if (percentage >= 83) return 3;
+        if (percentage >= 80) return 4;
+        if (percentage >= 77) return 5;
+        if (percentage >= 73) return 6;
+        if (percentage >= 70) return 7;
+        if (percentage >= 67) return 8;
+        if (percentage >= 63) return 9;
+        if (percentage >= 60) return 10;
+        return 11;
     }
 }
\ No newline at end of file
@@ -0,0 +1,171 @@
+package com.bestprograteam.canvas_dashboard.model.services;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Online least-squares state of score percentage (y) over time (x, in days since the
+ * first observation) for one user and course. Means, the x/y second moments and the
+ * x-y co-moment are kept Welford-style, so adding, replacing (regrade) or removing a grade
+ * is O(1) and numerically stable, and states of several courses can be merged exactly.
+ * Thread-safe.
+ */
+public class RegressionState {
+
+    static final double MILLIS_PER_DAY = 86_400_000.0;
+
+    /**
+     * Below this x variance every grade is on (almost) the same day and the slope is undefined.
+     */
+    private static final double MIN_X_MOMENT = 1e-9;
+
+    private record Observation(long gradedAtMillis, double percentage) {}
+
+    private long originMillis = Long.MIN_VALUE;
+    private long count;
+    private double meanX;
+    private double meanY;
+    private double m2X;
+    private double m2Y;
+    private double cXY;
+    private final Map<Integer, Observation> observations = new HashMap<>();
+
+    /**
+     * Records the graded percentage of an assignment; a changed grade replaces the old one.
+     * @return true when the state changed
+     */
+    public synchronized boolean observe(int assignmentId, long gradedAtMillis, double percentage) {
+        Observation previous = observations.get(assignmentId);
+        if (previous != null) {
+            if (previous.gradedAtMillis == gradedAtMillis && previous.percentage == percentage) {
+                return false;
+            }
+            remove(previous);
+        }
+        if (originMillis == Long.MIN_VALUE) {
+            originMillis = gradedAtMillis;
+        }
+        Observation observation = new Observation(gradedAtMillis, percentage);
+        observations.put(assignmentId, observation);
+        add(observation);
+        return true;
+    }
+
+    /**
+     * Drops every grade whose assignment is not in {@code assignmentIds} (excused, deleted,
+     * or no longer among the observed grades), so the fit follows what Canvas currently shows.
+     * @return true when the state changed
+     */
+    public synchronized boolean retainOnly(Set<Integer> assignmentIds) {
+        boolean changed = false;
+        Iterator<Map.Entry<Integer, Observation>> entries = observations.entrySet().iterator();
+        while (entries.hasNext()) {
+            Map.Entry<Integer, Observation> entry = entries.next();
+            if (!assignmentIds.contains(entry.getKey())) {
+                remove(entry.getValue());
+                entries.remove();
+                changed = true;
+            }
+        }
+        if (observations.isEmpty()) {
+            originMillis = Long.MIN_VALUE; // Next grade starts a fresh x axis
+        }
+        return changed;
+    }
+
+    public synchronized long count() {
+        return count;
+    }
+
+    public synchronized double meanY() {
+        return meanY;
+    }
+
+    /**
+     * Sample variance of the observed percentages (0 with fewer than two grades).
+     */
+    public synchronized double varianceY() {
+        return count > 1 ? m2Y / (count - 1) : 0.0;
+    }
+
+    public synchronized boolean hasSlope() {
+        return count >= 2 && m2X > MIN_X_MOMENT;
+    }
+
+    public synchronized double slope() {
+        return cXY / m2X;
+    }
+
+    /**
+     * Fitted percentage at the given instant.
+     */
+    public synchronized double predict(long atMillis) {
+        double x = (atMillis - originMillis) / MILLIS_PER_DAY;
+        return meanY + (cXY / m2X) * (x - meanX);
+    }
+
+    /**
+     * Combined fit over all given states (Chan et al. pairwise update), as a new state
+     * without per-assignment observations.
+     */
+    public static RegressionState merge(Collection<RegressionState> states) {
+        RegressionState merged = new RegressionState();
+        for (RegressionState state : states) {
+            synchronized (state) {
+                if (state.count == 0) {
+                    continue;
+                }
+                if (merged.count == 0) {
+                    merged.originMillis = state.originMillis;
+                }
+                // Move the other state's x axis onto the merged origin (only the mean shifts)
+                double otherMeanX = state.meanX + (state.originMillis - merged.originMillis) / MILLIS_PER_DAY;
+                long n = merged.count + state.count;
+                double dx = otherMeanX - merged.meanX;
+                double dy = state.meanY - merged.meanY;
+                double weight = (double) merged.count * state.count / n;
+                merged.meanX += dx * state.count / n;
+                merged.meanY += dy * state.count / n;
+                merged.m2X += state.m2X + dx * dx * weight;
+                merged.m2Y += state.m2Y + dy * dy * weight;
+                merged.cXY += state.cXY + dx * dy * weight;
+                merged.count = n;
+            }
+        }
+        return merged;
+    }
+
+    private void add(Observation observation) {
+        double x = (observation.gradedAtMillis - originMillis) / MILLIS_PER_DAY;
+        double y = observation.percentage;
+        count++;
+        double dx = x - meanX;
+        double dy = y - meanY;
+        meanX += dx / count;
+        meanY += dy / count;
+        m2X += dx * (x - meanX);
+        m2Y += dy * (y - meanY);
+        cXY += dx * (y - meanY);
+    }
+
+    private void remove(Observation observation) {
+        double x = (observation.gradedAtMillis - originMillis) / MILLIS_PER_DAY;
+        double y = observation.percentage;
+        if (count <= 1) {
+            count = 0;
+            meanX = meanY = m2X = m2Y = cXY = 0.0;
+            return;
+        }
+        count--;
+        double meanXAfter = meanX - (x - meanX) / count;
+        double meanYAfter = meanY - (y - meanY) / count;
+        m2X -= (x - meanXAfter) * (x - meanX);
+        m2Y -= (y - meanYAfter) * (y - meanY);
+        cXY -= (x - meanXAfter) * (y - meanY);
+        meanX = meanXAfter;
+        meanY = meanYAfter;
+    }
+}
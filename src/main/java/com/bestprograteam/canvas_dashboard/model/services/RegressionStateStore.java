@@ -0,0 +1,34 @@
+package com.bestprograteam.canvas_dashboard.model.services;
+
+import com.bestprograteam.canvas_dashboard.model.adapters.cache.TtlCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-user, per-course RegressionStates kept across requests (LRU-bounded, long TTL),
+ * so a page view only feeds the grades the model has not seen yet. Held in memory only:
+ * states are dropped on logout or expiry and rebuilt from the next dashboard load.
+ */
+@Component
+public class RegressionStateStore {
+
+    private final TtlCache<String, Map<String, RegressionState>> users;
+
+    public RegressionStateStore(@Value("${canvas.prediction.state-ttl-hours:720}") long ttlHours,
+                                @Value("${canvas.prediction.max-users:5000}") int maxUsers) {
+        this.users = new TtlCache<>(Duration.ofHours(ttlHours), maxUsers);
+    }
+
+    public RegressionState state(String userId, String courseId) {
+        Map<String, RegressionState> courses = users.getOrLoad(userId, ConcurrentHashMap::new, c -> true);
+        return courses.computeIfAbsent(courseId, id -> new RegressionState());
+    }
+
+    public void invalidateUser(String userId) {
+        users.invalidate(userId);
+    }
+}
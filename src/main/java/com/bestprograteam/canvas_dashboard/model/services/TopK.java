@@ -0,0 +1,157 @@
+package com.bestprograteam.canvas_dashboard.model.services;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.IntBinaryOperator;
+
+/**
+ * Keeps the first K ints (e.g. row indices into CourseColumns) of an ordering without sorting
+ * everything that was offered. Backed by a bounded binary heap of primitive ints whose root is
+ * the worst value kept, so each offer is O(log K), memory stays at K and nothing is boxed.
+ * Values that compare equal keep the order they were offered in.
+ */
+public class TopK {
+
+    private final int k;
+    private final IntBinaryOperator order;
+    private final int[] heap;
+    private final long[] sequence;
+    private long offered;
+    private int size;
+
+    /**
+     * @param order the ordering of the result, as a comparator over the offered ints
+     *              (negative when the first ranks earlier); the first K by it are kept
+     */
+    public TopK(int k, IntBinaryOperator order) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k must be >= 0");
+        }
+        this.k = k;
+        this.order = order;
+        this.heap = new int[k];
+        this.sequence = new long[k];
+    }
+
+    /**
+     * Merges lists that are each already sorted by {@code order} and returns the first
+     * {@code limit} elements overall. Costs O(limit log lists) instead of a full re-sort.
+     */
+    public static <T> List<T> mergeSorted(List<? extends List<? extends T>> sortedLists,
+                                          Comparator<? super T> order, int limit) {
+        // Cursor = {list index, position}; ties go to the earlier list so the merge is stable
+        PriorityQueue<int[]> cursors = new PriorityQueue<>(Math.max(1, sortedLists.size()), (a, b) -> {
+            int cmp = order.compare(sortedLists.get(a[0]).get(a[1]), sortedLists.get(b[0]).get(b[1]));
+            return cmp != 0 ? cmp : Integer.compare(a[0], b[0]);
+        });
+        for (int i = 0; i < sortedLists.size(); i++) {
+            List<? extends T> list = sortedLists.get(i);
+            if (list != null && !list.isEmpty()) {
+                cursors.add(new int[]{i, 0});
+            }
+        }
+
+        List<T> merged = new ArrayList<>(Math.min(limit, 16));
+        while (merged.size() < limit && !cursors.isEmpty()) {
+            int[] cursor = cursors.poll();
+            List<? extends T> list = sortedLists.get(cursor[0]);
+            merged.add(list.get(cursor[1]));
+            if (++cursor[1] < list.size()) {
+                cursors.add(cursor);
+            }
+        }
+        return merged;
+    }
+
+    public void offer(int value) {
+        long seq = offered++;
+        if (size < k) {
+            heap[size] = value;
+            sequence[size] = seq;
+            siftUp(size++);
+        } else if (k > 0 && worse(0, value, seq)) {
+            heap[0] = value;
+            sequence[0] = seq;
+            siftDown(0);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * The kept values in result order (insertion sort: K is small).
+     */
+    public int[] toArray() {
+        int[] slots = new int[size];
+        for (int i = 0; i < size; i++) {
+            int slot = i;
+            int j = i;
+            while (j > 0 && compare(slots[j - 1], slot) > 0) {
+                slots[j] = slots[j - 1];
+                j--;
+            }
+            slots[j] = slot;
+        }
+        int[] result = new int[size];
+        for (int i = 0; i < size; i++) {
+            result[i] = heap[slots[i]];
+        }
+        return result;
+    }
+
+    /**
+     * True when the heap slot ranks after the candidate, i.e. the candidate should replace it.
+     */
+    private boolean worse(int slot, int candidate, long candidateSeq) {
+        int cmp = order.applyAsInt(heap[slot], candidate);
+        return cmp != 0 ? cmp > 0 : sequence[slot] > candidateSeq;
+    }
+
+    /**
+     * Positive when slot a ranks after slot b, so the worst value kept sits at the root.
+     */
+    private int compare(int a, int b) {
+        int cmp = order.applyAsInt(heap[a], heap[b]);
+        return cmp != 0 ? cmp : Long.compare(sequence[a], sequence[b]);
+    }
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (compare(i, parent) <= 0) {
+                break;
+            }
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i) {
+        while (true) {
+            int left = 2 * i + 1;
+            if (left >= size) {
+                break;
+            }
+            int right = left + 1;
+            int worst = right < size && compare(right, left) > 0 ? right : left;
+            if (compare(worst, i) <= 0) {
+                break;
+            }
+            swap(i, worst);
+            i = worst;
+        }
+    }
+
+    private void swap(int a, int b) {
+        int value = heap[a];
+        heap[a] = heap[b];
+        heap[b] = value;
+        long seq = sequence[a];
+        sequence[a] = sequence[b];
+        sequence[b] = seq;
+    }
+}
@@ -0,0 +1,153 @@
+package com.bestprograteam.canvas_dashboard.model.services;
+
+import com.bestprograteam.canvas_dashboard.model.dto.CategoryBreakdown;
+import com.bestprograteam.canvas_dashboard.model.dto.CourseColumns;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Course grade the way Canvas computes it. When any assignment group has a weight, each
+ * group's earned/possible ratio is weighted and the weights of groups with nothing graded
+ * yet are left out. Otherwise the grade is plain earned/possible points.
+ * Per-group totals and the weighted sum are kept as running state, so a hypothetical
+ * score (what-if) changes the grade in O(1).
+ * Groups and weights come from the card's CategoryBreakdown; per-assignment points and
+ * scores come from its CourseColumns.
+ */
+public class WeightedGradeEngine {
+
+    private final boolean weighted;
+    private final double[] weights;
+    private final double[] earned;
+    private final double[] possible;
+    private double weightedSum;   // Σ weight * earned / possible over groups with possible > 0
+    private double activeWeight;  // Σ weight over the same groups
+    private double earnedTotal;
+    private double possibleTotal;
+    private final Map<Integer, Row> rows = new HashMap<>();
+
+    private static class Row {
+        final int slot;
+        final double points;
+        final double actual; // NaN when not graded
+        double effective;    // Actual or what-if score, NaN when it does not count
+
+        Row(int slot, double points, double actual) {
+            this.slot = slot;
+            this.points = points;
+            this.actual = actual;
+            this.effective = actual;
+        }
+    }
+
+    private WeightedGradeEngine(int groupCount, boolean weighted) {
+        this.weighted = weighted;
+        this.weights = new double[groupCount];
+        this.earned = new double[groupCount];
+        this.possible = new double[groupCount];
+    }
+
+    public static WeightedGradeEngine of(List<CategoryBreakdown> breakdown, CourseColumns columns) {
+        int groupCount = breakdown.size();
+        Map<Integer, Integer> slots = new HashMap<>(groupCount * 2);
+        double totalWeight = 0;
+        for (int i = 0; i < groupCount; i++) {
+            CategoryBreakdown category = breakdown.get(i);
+            if (category.group != null && category.group.id != null) {
+                slots.putIfAbsent(category.group.id, i);
+            }
+            if (category.group != null && category.group.groupWeight != null && category.group.groupWeight > 0) {
+                totalWeight += category.group.groupWeight;
+            }
+        }
+        WeightedGradeEngine engine = new WeightedGradeEngine(groupCount, totalWeight > 0);
+        for (int i = 0; i < groupCount; i++) {
+            CategoryBreakdown category = breakdown.get(i);
+            Double weight = category.group != null ? category.group.groupWeight : null;
+            engine.weights[i] = weight != null && weight > 0 ? weight : 0.0;
+        }
+
+        for (int row = 0; row < columns.size; row++) {
+            double points = columns.pointsPossible[row];
+            int assignmentId = columns.assignmentIds[row];
+            if (assignmentId == CourseColumns.NO_ID || Double.isNaN(points) || engine.rows.containsKey(assignmentId)) {
+                continue; // Canvas does not count assignments without points; duplicates count once
+            }
+            Integer slot = columns.groupIds[row] != CourseColumns.NO_ID ? slots.get(columns.groupIds[row]) : null;
+            Row entry = new Row(slot != null ? slot : -1, points, columns.scores[row]);
+            engine.rows.put(assignmentId, entry);
+            engine.apply(entry, entry.effective, 1);
+        }
+        return engine;
+    }
+
+    public boolean isWeighted() {
+        return weighted;
+    }
+
+    /**
+     * Current grade as a percentage (with any what-if scores), NaN when nothing counts yet.
+     */
+    public synchronized double grade() {
+        if (weighted) {
+            return activeWeight > 0 ? weightedSum / activeWeight * 100 : Double.NaN;
+        }
+        return possibleTotal > 0 ? earnedTotal / possibleTotal * 100 : Double.NaN;
+    }
+
+    /**
+     * Uses a hypothetical score for one assignment (NaN = treat it as ungraded).
+     * @return the grade afterwards, or NaN if the assignment is unknown
+     */
+    public synchronized double whatIf(int assignmentId, double score) {
+        Row row = rows.get(assignmentId);
+        if (row == null) {
+            return Double.NaN;
+        }
+        apply(row, row.effective, -1);
+        row.effective = score;
+        apply(row, row.effective, 1);
+        return grade();
+    }
+
+    /**
+     * Back to the assignment's real score.
+     */
+    public synchronized double reset(int assignmentId) {
+        Row row = rows.get(assignmentId);
+        return row != null ? whatIf(assignmentId, row.actual) : Double.NaN;
+    }
+
+    public synchronized boolean knows(int assignmentId) {
+        return rows.containsKey(assignmentId);
+    }
+
+    /**
+     * Adds (sign = 1) or removes (sign = -1) one counted score.
+     */
+    private void apply(Row row, double score, int sign) {
+        if (Double.isNaN(score)) {
+            return;
+        }
+        earnedTotal += sign * score;
+        possibleTotal += sign * row.points;
+        int slot = row.slot;
+        if (slot < 0) {
+            return;
+        }
+        double before = possible[slot] > 0 ? weights[slot] * earned[slot] / possible[slot] : 0.0;
+        double activeBefore = possible[slot] > 0 ? weights[slot] : 0.0;
+        earned[slot] += sign * score;
+        possible[slot] += sign * row.points;
+        if (Math.abs(possible[slot]) < 1e-9) {
+            possible[slot] = 0.0; // Drop float residue once the group is empty again
+            earned[slot] = 0.0;
+        }
+        double after = possible[slot] > 0 ? weights[slot] * earned[slot] / possible[slot] : 0.0;
+        double activeAfter = possible[slot] > 0 ? weights[slot] : 0.0;
+        weightedSum += after - before;
+        activeWeight += activeAfter - activeBefore;
+    }
+}
@@ -0,0 +1,130 @@
+package com.bestprograteam.canvas_dashboard.model.services;
+
+import com.bestprograteam.canvas_dashboard.model.adapters.cache.TtlCache;
+import com.bestprograteam.canvas_dashboard.model.dto.CourseCardData;
+import com.bestprograteam.canvas_dashboard.model.dto.DashboardData;
+import com.bestprograteam.canvas_dashboard.model.dto.WhatIfResult;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Hypothetical ("what-if") scores on top of the dashboard the user last loaded.
+ * Each dashboard load starts a session holding a WeightedGradeEngine per course, whose
+ * grade is the course's baseline (Canvas's current score for courses without columns), so
+ * the first edit moves the grade only by that edit. The semester grade is kept as a running
+ * sum of course grades; a score change therefore costs O(1) and never calls Canvas or
+ * rebuilds the dashboard.
+ */
+@Service
+public class WhatIfService {
+
+    private final TtlCache<String, Session> sessions;
+
+    public WhatIfService(@Value("${canvas.what-if.session-ttl-minutes:60}") long ttlMinutes,
+                         @Value("${canvas.what-if.max-sessions:5000}") int maxSessions) {
+        this.sessions = new TtlCache<>(Duration.ofMinutes(ttlMinutes), maxSessions);
+    }
+
+    /**
+     * Replaces the user's session with the freshly loaded dashboard (drops earlier what-ifs).
+     */
+    public void startSession(String userId, DashboardData dashboardData) {
+        if (userId == null || dashboardData == null || dashboardData.courseCards == null) {
+            return;
+        }
+        sessions.put(userId, new Session(dashboardData));
+    }
+
+    /**
+     * Applies a hypothetical score (null = back to the real score) to one assignment.
+     * @return the updated grades, or null when there is no session, course or assignment to apply it to
+     */
+    public WhatIfResult whatIf(String userId, String courseId, int assignmentId, Double score) {
+        Session session = userId != null ? sessions.get(userId) : null;
+        if (session == null) {
+            return null;
+        }
+        synchronized (session) {
+            CourseSession course = session.courses.get(courseId);
+            if (course == null) {
+                return null;
+            }
+            WeightedGradeEngine engine = course.engine;
+            if (engine == null || !engine.knows(assignmentId)) {
+                return null;
+            }
+            double grade = score != null ? engine.whatIf(assignmentId, score) : engine.reset(assignmentId);
+            session.update(course, grade);
+            return session.result(courseId, assignmentId, course);
+        }
+    }
+
+    /**
+     * Drops every hypothetical score of the user.
+     */
+    public void invalidateUser(String userId) {
+        sessions.invalidate(userId);
+    }
+
+    private static class Session {
+        final Map<String, CourseSession> courses = new HashMap<>();
+        double semesterSum;  // Σ course grades that count
+        int semesterCount;
+
+        Session(DashboardData dashboardData) {
+            for (CourseCardData card : dashboardData.courseCards) {
+                if (card.courseWithGrades == null || card.courseWithGrades.course == null
+                        || card.courseWithGrades.course.id == null || card.isLoading()) {
+                    continue;
+                }
+                Double canvasScore = card.courseWithGrades.enrollment != null
+                        ? card.courseWithGrades.enrollment.currentScore : null;
+                CourseSession course = new CourseSession(card, canvasScore != null ? canvasScore : Double.NaN);
+                courses.put(card.courseWithGrades.course.id, course);
+                if (!Double.isNaN(course.grade)) {
+                    semesterSum += course.grade;
+                    semesterCount++;
+                }
+            }
+        }
+
+        /**
+         * Swaps one course's contribution to the semester average.
+         */
+        void update(CourseSession course, double grade) {
+            if (!Double.isNaN(course.grade)) {
+                semesterSum -= course.grade;
+                semesterCount--;
+            }
+            course.grade = grade;
+            if (!Double.isNaN(grade)) {
+                semesterSum += grade;
+                semesterCount++;
+            }
+        }
+
+        WhatIfResult result(String courseId, int assignmentId, CourseSession course) {
+            Double courseGrade = Double.isNaN(course.grade) ? null : course.grade;
+            Double semesterGrade = semesterCount > 0 ? semesterSum / semesterCount : null;
+            String letter = courseGrade != null ? PredictionService.convertToLetterGrade(courseGrade) : null;
+            return new WhatIfResult(courseId, assignmentId, courseGrade, letter, semesterGrade,
+                    course.engine != null && course.engine.isWeighted());
+        }
+    }
+
+    private static class CourseSession {
+        final WeightedGradeEngine engine; // null when the card has no columns
+        double grade; // The engine's grade, Canvas's current score when the engine has none
+
+        CourseSession(CourseCardData card, double canvasScore) {
+            this.engine = card.columns != null && card.categoryBreakdown != null
+                    ? WeightedGradeEngine.of(card.categoryBreakdown, card.columns) : null;
+            double engineGrade = engine != null ? engine.grade() : Double.NaN;
+            this.grade = !Double.isNaN(engineGrade) ? engineGrade : canvasScore;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.bestprograteam.canvas_dashboard.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CanvasExecutorConfigTest {
+
+    @Test
+    void shouldUseFixedPlatformPoolInPlatformMode() {
+        ExecutorService executor = config("platform").canvasPrefetchExecutor();
+        try {
+            assertThat(executor).isInstanceOf(ThreadPoolExecutor.class);
+            assertThat(((ThreadPoolExecutor) executor).getMaximumPoolSize()).isEqualTo(3);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void shouldUseVirtualThreadsOrFallBackInVirtualMode() throws Exception {
+        ExecutorService executor = config("virtual").canvasPrefetchExecutor();
+        try {
+            if (Runtime.version().feature() >= 21) {
+                Thread worker = executor.submit(Thread::currentThread).get();
+                assertThat(Thread.class.getMethod("isVirtual").invoke(worker)).isEqualTo(true);
+            } else {
+                // JDK 17: the same fixed pool as platform mode
+                assertThat(executor).isInstanceOf(ThreadPoolExecutor.class);
+                assertThat(((ThreadPoolExecutor) executor).getMaximumPoolSize()).isEqualTo(3);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static CanvasExecutorConfig config(String mode) {
+        CanvasExecutorConfig config = new CanvasExecutorConfig();
+        ReflectionTestUtils.setField(config, "mode", mode);
+        ReflectionTestUtils.setField(config, "platformThreads", 5);
+        ReflectionTestUtils.setField(config, "prefetchThreads", 3);
+        return config;
+    }
+}
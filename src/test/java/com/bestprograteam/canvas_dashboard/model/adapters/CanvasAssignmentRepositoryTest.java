@@ -0,0 +1,111 @@
+package com.bestprograteam.canvas_dashboard.model.adapters;
+
+import com.bestprograteam.canvas_dashboard.model.entities.Assignment;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the assignment adapter against a local stub of Canvas' REST API.
+ */
+class CanvasAssignmentRepositoryTest {
+
+    private static final String FIRST_PAGE = """
+            [{"id": 1001, "name": "Midterm", "due_at": "2025-03-10T23:59:59Z", "points_possible": 100.0,
+              "assignment_group_id": 7, "workflow_state": "published",
+              "submission": {"assignment_id": 1001, "score": 88.0, "workflow_state": "graded",
+                             "graded_at": "2025-03-12T15:00:00Z", "late": false}},
+             {"id": 1002, "name": "Homework 1", "due_at": null, "points_possible": 10,
+              "assignment_group_id": 8, "workflow_state": "published",
+              "submission": {"score": null, "workflow_state": "unsubmitted", "graded_at": null}}]
+            """;
+
+    private static final String SECOND_PAGE = """
+            [{"id": 1003, "name": "Homework 2", "points_possible": 10, "assignment_group_id": 8}]
+            """;
+
+    private HttpServer server;
+    private final List<String> queries = new CopyOnWriteArrayList<>();
+    private ExecutorService prefetchExecutor;
+    private CanvasAssignmentRepository repository;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        String baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+        server.createContext("/api/v1/courses/101/assignments", exchange -> {
+            String query = exchange.getRequestURI().getRawQuery();
+            queries.add(query);
+            boolean secondPage = query.contains("page=2");
+            if (!secondPage) {
+                exchange.getResponseHeaders().set("Link", "<" + baseUrl + "/api/v1/courses/101/assignments?"
+                        + query + "&page=2>; rel=\"next\"");
+            }
+            byte[] body = (secondPage ? SECOND_PAGE : FIRST_PAGE).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+
+        prefetchExecutor = Executors.newFixedThreadPool(2);
+        CanvasPaginator paginator = new CanvasPaginator(new RestTemplate(), new ConditionalRequestCache(1, 100),
+                new CanvasRateLimiter(8, 150, 400, 10), prefetchExecutor, 3);
+        repository = new CanvasAssignmentRepository(paginator);
+        ReflectionTestUtils.setField(repository, "canvasInstanceUrl", baseUrl);
+
+        Map<String, Object> details = new HashMap<>();
+        details.put("apiToken", "test-token");
+        UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                "42", "test-token", List.of(new SimpleGrantedAuthority("ROLE_USER")));
+        authentication.setDetails(details);
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        prefetchExecutor.shutdownNow();
+        server.stop(0);
+    }
+
+    @Test
+    void shouldFetchAssignmentsWithEmbeddedSubmissionsInOneRequestPerPage() {
+        List<Assignment> assignments = repository.findAssignmentsWithSubmissions(101);
+
+        // Array parameters reach Canvas encoded exactly once, on every page
+        assertThat(queries).hasSize(2);
+        assertThat(queries).allSatisfy(query -> assertThat(query)
+                .contains("include%5B%5D=submission")
+                .contains("exclude_response_fields%5B%5D=description")
+                .doesNotContain("%255B"));
+
+        assertThat(assignments).extracting(a -> a.id).containsExactly(1001, 1002, 1003);
+        assertThat(assignments.get(0).submission.score).isEqualTo(88.0);
+        assertThat(assignments.get(0).submission.gradedAt).isNotNull();
+        assertThat(assignments.get(0).submission.late).isFalse();
+        // Embedded submissions may omit assignment_id; it is taken from the enclosing assignment
+        assertThat(assignments.get(1).submission.assignmentId).isEqualTo(1002);
+        assertThat(assignments.get(1).submission.score).isNull();
+        assertThat(assignments.get(2).submission).isNull();
+    }
+}
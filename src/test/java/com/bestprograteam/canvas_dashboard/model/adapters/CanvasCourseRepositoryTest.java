@@ -0,0 +1,112 @@
+package com.bestprograteam.canvas_dashboard.model.adapters;
+
+import com.bestprograteam.canvas_dashboard.model.entities.Course;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the course adapter against a local stub of Canvas' REST API.
+ */
+class CanvasCourseRepositoryTest {
+
+    private static final String COURSES = """
+            [{"id": 101, "name": "Data Structures", "course_code": "CS2021", "workflow_state": "available",
+              "enrollments": [{"type": "student", "role": "StudentEnrollment", "enrollment_state": "active",
+                               "computed_current_score": 85.5, "computed_final_score": 60.0,
+                               "computed_current_grade": "B", "multiple_grading_periods_enabled": false}]},
+             {"id": 102, "name": "OOP", "course_code": "CC2008", "workflow_state": "available",
+              "enrollments": [{"type": "ta", "enrollment_state": "active"},
+                              {"type": "student", "enrollment_state": "active",
+                               "computed_current_score": 70.0, "computed_current_grade": "C-",
+                               "multiple_grading_periods_enabled": true,
+                               "current_period_computed_current_score": 91.0,
+                               "current_period_computed_final_score": 40.0,
+                               "current_period_computed_current_grade": "A-"}]},
+             {"id": 103, "name": "Teaching", "course_code": "TA1", "workflow_state": "available",
+              "enrollments": [{"type": "teacher", "enrollment_state": "active"}]}]
+            """;
+
+    private HttpServer server;
+    private final List<String> queries = new CopyOnWriteArrayList<>();
+    private ExecutorService prefetchExecutor;
+    private CanvasCourseRepository repository;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/api/v1/courses", exchange -> {
+            queries.add(exchange.getRequestURI().getRawQuery());
+            byte[] body = COURSES.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+
+        prefetchExecutor = Executors.newFixedThreadPool(2);
+        CanvasPaginator paginator = new CanvasPaginator(new RestTemplate(), new ConditionalRequestCache(1, 100),
+                new CanvasRateLimiter(8, 150, 400, 10), prefetchExecutor, 3);
+        repository = new CanvasCourseRepository(paginator);
+        ReflectionTestUtils.setField(repository, "canvasInstanceUrl", "http://127.0.0.1:" + server.getAddress().getPort());
+
+        Map<String, Object> details = new HashMap<>();
+        details.put("apiToken", "test-token");
+        UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                "42", "test-token", List.of(new SimpleGrantedAuthority("ROLE_USER")));
+        authentication.setDetails(details);
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        prefetchExecutor.shutdownNow();
+        server.stop(0);
+    }
+
+    @Test
+    void shouldFillCoursesAndEnrollmentsFromOneResponse() {
+        List<Course> courses = repository.findActiveCoursesWithEnrollments();
+
+        assertThat(queries).hasSize(1);
+        assertThat(queries.get(0))
+                .contains("enrollment_state=active")
+                .contains("include%5B%5D=total_scores")
+                .contains("include%5B%5D=current_grading_period_scores");
+
+        assertThat(courses).extracting(c -> c.id).containsExactly("101", "102", "103");
+        assertThat(courses.get(0).enrollment.courseId).isEqualTo(101);
+        assertThat(courses.get(0).enrollment.enrollmentState).isEqualTo("active");
+        assertThat(courses.get(0).enrollment.currentScore).isEqualTo(85.5);
+        assertThat(courses.get(0).enrollment.finalScore).isEqualTo(60.0);
+        assertThat(courses.get(0).enrollment.currentGrade).isEqualTo("B");
+
+        // Student enrollment picked over other roles; grading periods use the current period's scores
+        assertThat(courses.get(1).enrollment.courseId).isEqualTo(102);
+        assertThat(courses.get(1).enrollment.currentScore).isEqualTo(91.0);
+        assertThat(courses.get(1).enrollment.finalScore).isEqualTo(40.0);
+        assertThat(courses.get(1).enrollment.currentGrade).isEqualTo("A-");
+
+        assertThat(courses.get(2).enrollment).isNull();
+    }
+}
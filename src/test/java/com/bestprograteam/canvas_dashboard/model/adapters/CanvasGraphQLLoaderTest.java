@@ -0,0 +1,203 @@
+package com.bestprograteam.canvas_dashboard.model.adapters;
+
+import com.bestprograteam.canvas_dashboard.model.dto.DashboardData;
+import com.bestprograteam.canvas_dashboard.model.repositories.*;
+import com.bestprograteam.canvas_dashboard.model.services.DashboardService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutorService;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+/**
+ * Runs the GraphQL loader against a local stub of Canvas' /api/graphql.
+ */
+class CanvasGraphQLLoaderTest {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private static final String DASHBOARD_RESPONSE = """
+            {"data": {"legacyNode": {"enrollments": [
+              {"type": "StudentEnrollment", "state": "active", "lastActivityAt": "2025-03-01T10:00:00Z", "totalActivityTime": 3600,
+               "grades": {"currentScore": 85.5, "finalScore": 60.0, "currentGrade": "B"},
+               "course": {"_id": "101", "name": "Data Structures", "courseCode": "CS2021", "state": "available",
+                 "assignmentGroupsConnection": {"nodes": [
+                   {"_id": "7", "name": "Exams", "position": 1, "groupWeight": 60.0},
+                   {"_id": "8", "name": "Homework", "position": 2, "groupWeight": 40.0}],
+                   "pageInfo": {"hasNextPage": false, "endCursor": null}},
+                 "assignmentsConnection": {"nodes": [
+                   {"_id": "1001", "name": "Midterm", "dueAt": "2025-03-10T23:59:59Z", "pointsPossible": 100.0,
+                    "assignmentGroupId": "7", "state": "published"}],
+                   "pageInfo": {"hasNextPage": true, "endCursor": "cursor-1"}},
+                 "submissionsConnection": {"nodes": [
+                   {"assignmentId": "1001", "score": 88.0, "state": "graded", "gradedAt": "2025-03-12T15:00:00Z", "late": false}],
+                   "pageInfo": {"hasNextPage": false, "endCursor": null}}}},
+              {"type": "StudentEnrollment", "state": "invited", "grades": {},
+               "course": {"_id": "202", "name": "Next Term", "courseCode": "NEXT", "state": "available",
+                 "assignmentGroupsConnection": {"nodes": [], "pageInfo": {"hasNextPage": false}},
+                 "assignmentsConnection": {"nodes": [], "pageInfo": {"hasNextPage": true, "endCursor": "cursor-x"}},
+                 "submissionsConnection": {"nodes": [], "pageInfo": {"hasNextPage": false}}}},
+              {"type": "TeacherEnrollment", "state": "active", "grades": {},
+               "course": {"_id": "303", "name": "TA Section", "courseCode": "TA", "state": "available",
+                 "assignmentGroupsConnection": {"nodes": [], "pageInfo": {"hasNextPage": false}},
+                 "assignmentsConnection": {"nodes": [], "pageInfo": {"hasNextPage": true, "endCursor": "cursor-t"}},
+                 "submissionsConnection": {"nodes": [], "pageInfo": {"hasNextPage": false}}}}
+            ]}}}
+            """;
+
+    private static final String SECOND_PAGE_RESPONSE = """
+            {"data": {"course": {"assignmentsConnection": {"nodes": [
+              {"_id": "1002", "name": "Homework 1", "dueAt": null, "pointsPossible": 10, "assignmentGroupId": "8", "state": "published"}],
+              "pageInfo": {"hasNextPage": false, "endCursor": "cursor-2"}}}}}
+            """;
+
+    private HttpServer server;
+    private final List<JsonNode> requests = new CopyOnWriteArrayList<>();
+    private final List<String> authorizations = new CopyOnWriteArrayList<>();
+    private volatile String dashboardResponse = DASHBOARD_RESPONSE;
+    private ExecutorService prefetchExecutor;
+    private CanvasGraphQLLoader loader;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/api/graphql", exchange -> {
+            JsonNode request = JSON.readTree(exchange.getRequestBody());
+            requests.add(request);
+            authorizations.add(exchange.getRequestHeaders().getFirst("Authorization"));
+            String query = request.path("query").asText();
+            byte[] body = (query.contains("legacyNode") ? dashboardResponse : SECOND_PAGE_RESPONSE)
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+
+        prefetchExecutor = Executors.newFixedThreadPool(4);
+        loader = new CanvasGraphQLLoader("http://127.0.0.1:" + server.getAddress().getPort(),
+                new RestTemplate(), new CanvasRateLimiter(8, 150, 400, 10), prefetchExecutor, 100, 3);
+
+        Map<String, Object> details = new HashMap<>();
+        details.put("apiToken", "test-token");
+        UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                "42", "test-token", List.of(new SimpleGrantedAuthority("ROLE_USER")));
+        authentication.setDetails(details);
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        prefetchExecutor.shutdownNow();
+        server.stop(0);
+    }
+
+    @Test
+    void shouldLoadWholeDashboardGraphAndFollowExtraPages() {
+        List<DashboardBulkLoader.CourseBundle> bundles = loader.loadActiveCourses();
+
+        // One query for everything, one more for the second assignments page
+        assertThat(requests).hasSize(2);
+        assertThat(authorizations).containsOnly("Bearer test-token");
+        assertThat(requests.get(0).path("variables").path("userId").asText()).isEqualTo("42");
+        assertThat(requests.get(1).path("variables").path("courseId").asText()).isEqualTo("101");
+        assertThat(requests.get(1).path("variables").path("after").asText()).isEqualTo("cursor-1");
+
+        // Only the active student enrollment is kept
+        assertThat(bundles).hasSize(1);
+        DashboardBulkLoader.CourseBundle bundle = bundles.get(0);
+        assertThat(bundle.course().id).isEqualTo("101");
+        assertThat(bundle.course().code).isEqualTo("CS2021");
+        assertThat(bundle.enrollment().courseId).isEqualTo(101);
+        assertThat(bundle.enrollment().currentScore).isEqualTo(85.5);
+        assertThat(bundle.enrollment().currentGrade).isEqualTo("B");
+        assertThat(bundle.assignmentGroups()).extracting(g -> g.groupWeight).containsExactly(60.0, 40.0);
+        assertThat(bundle.assignments()).extracting(a -> a.id).containsExactly(1001, 1002);
+        assertThat(bundle.assignments().get(0).assignmentGroupId).isEqualTo(7);
+        assertThat(bundle.assignments().get(0).dueAt).isNotNull();
+        assertThat(bundle.assignments().get(1).dueAt).isNull();
+        assertThat(bundle.submissions()).hasSize(1);
+        assertThat(bundle.submissions().get(0).score).isEqualTo(88.0);
+        assertThat(bundle.submissions().get(0).late).isFalse();
+    }
+
+    @Test
+    void shouldNeverRequestConnectionsOfInactiveCourses() {
+        loader.loadActiveCourses();
+
+        // Canvas filters to current enrollments; the whole-catalog field is never queried
+        String dashboardQuery = requests.get(0).path("query").asText();
+        assertThat(dashboardQuery).contains("enrollments(currentOnly: true)").doesNotContain("allCourses");
+        // A non-active enrollment that slips through is not paged further
+        assertThat(requests).noneMatch(request -> "202".equals(request.path("variables").path("courseId").asText()));
+    }
+
+    @Test
+    void shouldSkipCoursesTheUserIsNotAStudentIn() {
+        List<DashboardBulkLoader.CourseBundle> bundles = loader.loadActiveCourses();
+
+        assertThat(requests.get(0).path("query").asText()).contains("type state");
+        assertThat(bundles).extracting(bundle -> bundle.course().id).containsExactly("101");
+        assertThat(requests).noneMatch(request -> "303".equals(request.path("variables").path("courseId").asText()));
+    }
+
+    @Test
+    void shouldBuildDashboardWithoutPerEntityRequests() {
+        CourseRepository courseRepository = mock(CourseRepository.class);
+        AssignmentRepository assignmentRepository = mock(AssignmentRepository.class);
+        AssignmentGroupRepository assignmentGroupRepository = mock(AssignmentGroupRepository.class);
+        // Same shape as the canvasExecutor bean: the loader reads the user's token on a pool thread
+        ExecutorService canvasExecutor = new DelegatingSecurityContextExecutorService(Executors.newFixedThreadPool(4));
+        DashboardService dashboardService = new DashboardService(courseRepository,
+                assignmentRepository, assignmentGroupRepository, canvasExecutor);
+        dashboardService.setBulkLoader(loader);
+
+        DashboardData dashboardData;
+        try {
+            dashboardData = dashboardService.getDashboardData();
+        } finally {
+            canvasExecutor.shutdownNow();
+        }
+
+        assertThat(dashboardData.courseCards).hasSize(1);
+        assertThat(dashboardData.courseCards.get(0).categoryBreakdown).hasSize(2);
+        assertThat(dashboardData.courseCards.get(0).recentGrades).hasSize(1);
+        assertThat(dashboardData.summary.overallPercentage).isEqualTo(85.5);
+        // The course list may be fetched alongside as the over-budget fallback, but no per-course requests are made
+        verifyNoInteractions(assignmentRepository, assignmentGroupRepository);
+    }
+
+    @Test
+    void shouldFailOnGraphQLErrorsWithoutData() {
+        dashboardResponse = """
+                {"errors": [{"message": "Field 'legacyNode' doesn't exist"}]}
+                """;
+
+        assertThatThrownBy(() -> loader.loadActiveCourses())
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("legacyNode");
+    }
+}
@@ -0,0 +1,69 @@
+package com.bestprograteam.canvas_dashboard.model.adapters;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Decodes Canvas rows the way the paginator does: one decoder call per array element, nulls dropped.
+ */
+class CanvasJsonDecodersTest {
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    @Test
+    void shouldDropRowsWithoutTheirKey() throws IOException {
+        assertThat(decode("""
+                [{"id": 101, "name": "Data Structures"}, {"id": null, "name": "No id"}, {"name": "Missing id"}]
+                """, CanvasJsonDecoders.course())).extracting(c -> c.id).containsExactly("101");
+
+        assertThat(decode("""
+                [{"id": 1, "name": "Lab"}, {"id": null, "name": "Draft"}]
+                """, CanvasJsonDecoders.assignment(101))).extracting(a -> a.id).containsExactly(1);
+
+        assertThat(decode("""
+                [{"id": 7, "name": "Exams"}, {"name": "Orphan"}]
+                """, CanvasJsonDecoders.assignmentGroup(101))).extracting(g -> g.id).containsExactly(7);
+
+        assertThat(decode("""
+                [{"course_id": 101, "enrollment_state": "active"}, {"enrollment_state": "active"}]
+                """, CanvasJsonDecoders.enrollment())).extracting(e -> e.courseId).containsExactly(101);
+
+        assertThat(decode("""
+                [{"assignment_id": 1, "score": 9.0}, {"assignment_id": null, "score": 3.0}]
+                """, CanvasJsonDecoders.submission())).extracting(s -> s.assignmentId).containsExactly(1);
+    }
+
+    @Test
+    void shouldKeepRowsWhoseOtherFieldsAreNullOrMistyped() throws IOException {
+        var assignments = decode("""
+                [{"id": 2, "name": null, "due_at": null, "points_possible": "ten", "assignment_group_id": null}]
+                """, CanvasJsonDecoders.assignment(101));
+
+        assertThat(assignments).hasSize(1);
+        assertThat(assignments.get(0).courseId).isEqualTo(101);
+        assertThat(assignments.get(0).name).isNull();
+        assertThat(assignments.get(0).pointsPossible).isNull();
+    }
+
+    private static <T> List<T> decode(String json, CanvasJsonDecoder<T> decoder) throws IOException {
+        List<T> items = new ArrayList<>();
+        try (JsonParser parser = JSON.createParser(json)) {
+            assertThat(parser.nextToken()).isEqualTo(JsonToken.START_ARRAY);
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                T item = decoder.decode(parser);
+                if (item != null) {
+                    items.add(item);
+                }
+            }
+        }
+        return items;
+    }
+}
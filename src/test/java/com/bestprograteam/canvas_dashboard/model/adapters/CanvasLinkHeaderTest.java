@@ -0,0 +1,57 @@
+package com.bestprograteam.canvas_dashboard.model.adapters;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CanvasLinkHeaderTest {
+
+    @Test
+    void shouldParseQuotedRelsInAnyOrder() {
+        CanvasLinkHeader links = CanvasLinkHeader.parse(
+                "<https://canvas.test/api/v1/courses?page=5&per_page=100>; rel=\"last\", "
+                        + "<https://canvas.test/api/v1/courses?page=1&per_page=100>; rel=\"first\", "
+                        + "<https://canvas.test/api/v1/courses?page=2&per_page=100>; rel=\"next\"");
+
+        assertThat(links.next()).isEqualTo("https://canvas.test/api/v1/courses?page=2&per_page=100");
+        assertThat(links.last()).isEqualTo("https://canvas.test/api/v1/courses?page=5&per_page=100");
+    }
+
+    @Test
+    void shouldParseUnquotedRelsAndExtraWhitespace() {
+        CanvasLinkHeader links = CanvasLinkHeader.parse(
+                "<https://canvas.test/a?page=2>  ;  rel=next,<https://canvas.test/a?page=3>;rel=last");
+
+        assertThat(links.next()).isEqualTo("https://canvas.test/a?page=2");
+        assertThat(links.last()).isEqualTo("https://canvas.test/a?page=3");
+    }
+
+    @Test
+    void shouldReportMissingLinksAsNull() {
+        CanvasLinkHeader bookmarked = CanvasLinkHeader.parse(
+                "<https://canvas.test/a?page=bookmark:WzEwXQ&per_page=100>; rel=\"next\"");
+
+        assertThat(bookmarked.next()).isNotNull();
+        assertThat(bookmarked.last()).isNull();
+        assertThat(CanvasLinkHeader.parse(null).next()).isNull();
+        assertThat(CanvasLinkHeader.parse("").last()).isNull();
+    }
+
+    @Test
+    void shouldOnlyTreatNumericPagesAsPageNumbers() {
+        assertThat(CanvasLinkHeader.pageNumber("https://canvas.test/a?page=4&per_page=100")).isEqualTo(4);
+        assertThat(CanvasLinkHeader.pageNumber("https://canvas.test/a?per_page=100&page=7")).isEqualTo(7);
+        assertThat(CanvasLinkHeader.pageNumber("https://canvas.test/a?page=bookmark:WzEwXQ")).isEqualTo(-1);
+        assertThat(CanvasLinkHeader.pageNumber("https://canvas.test/a?per_page=100")).isEqualTo(-1);
+        assertThat(CanvasLinkHeader.pageNumber(null)).isEqualTo(-1);
+    }
+
+    @Test
+    void shouldRewriteOnlyThePageParameter() {
+        assertThat(CanvasLinkHeader.withPage("https://canvas.test/a?page=5&per_page=100", 3))
+                .isEqualTo("https://canvas.test/a?page=3&per_page=100");
+        // per_page must not be mistaken for page
+        assertThat(CanvasLinkHeader.withPage("https://canvas.test/a?per_page=100&page=5", 2))
+                .isEqualTo("https://canvas.test/a?per_page=100&page=2");
+    }
+}
@@ -0,0 +1,203 @@
+package com.bestprograteam.canvas_dashboard.model.adapters;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs the paginator against a local stub of a paginated Canvas list endpoint.
+ */
+class CanvasPaginatorTest {
+
+    private static final Pattern PAGE = Pattern.compile("page=(\\d+)");
+
+    private HttpServer server;
+    private String baseUrl;
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+    private ExecutorService prefetchExecutor;
+    private CanvasPaginator paginator;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newFixedThreadPool(8));
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+        server.start();
+
+        prefetchExecutor = Executors.newFixedThreadPool(4);
+        paginator = new CanvasPaginator(new RestTemplate(), new ConditionalRequestCache(1, 100),
+                new CanvasRateLimiter(8, 150, 400, 10), prefetchExecutor, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        prefetchExecutor.shutdownNow();
+        server.stop(0);
+    }
+
+    @Test
+    void shouldFetchNumberedPagesConcurrentlyButKeepTheirOrder() {
+        // Four pages; later pages answer first, so completion order is the reverse of page order
+        server.createContext("/api/v1/items", exchange -> {
+            int page = page(exchange);
+            requests.add("page=" + page);
+            if (page == 1) {
+                exchange.getResponseHeaders().set("Link",
+                        "<" + baseUrl + "/api/v1/items?page=4&per_page=2>; rel=\"last\", "
+                                + "<" + baseUrl + "/api/v1/items?page=2&per_page=2>; rel=\"next\"");
+            } else {
+                sleep((5 - page) * 100L);
+            }
+            respond(exchange, 200, "[{\"id\": " + (page * 10 + 1) + "}, {\"id\": " + (page * 10 + 2) + "}]");
+        });
+
+        List<Integer> ids = paginator.stream(baseUrl + "/api/v1/items?per_page=2", "token",
+                CanvasJsonDecoders.assignmentGroup(1)).map(g -> g.id).collect(Collectors.toList());
+
+        assertThat(ids).containsExactly(11, 12, 21, 22, 31, 32, 41, 42);
+        assertThat(requests).hasSize(4).contains("page=2", "page=3", "page=4");
+    }
+
+    @Test
+    void shouldFollowNextLazilyWithoutLast() {
+        // Bookmark pagination: no rel="last", each page only links to the next one
+        server.createContext("/api/v1/items", exchange -> {
+            String query = exchange.getRequestURI().getRawQuery();
+            requests.add(query);
+            String next = query.contains("bookmark:b") ? null
+                    : query.contains("bookmark:a") ? "bookmark:b" : "bookmark:a";
+            if (next != null) {
+                exchange.getResponseHeaders().set("Link",
+                        "<" + baseUrl + "/api/v1/items?page=" + next + "&per_page=1>; rel=\"next\"");
+            }
+            respond(exchange, 200, "[{\"id\": " + requests.size() + "}]");
+        });
+
+        List<Integer> firstPage = paginator.stream(baseUrl + "/api/v1/items?per_page=1", "token",
+                CanvasJsonDecoders.assignmentGroup(1)).limit(1).map(g -> g.id).collect(Collectors.toList());
+        assertThat(firstPage).containsExactly(1);
+        assertThat(requests).hasSize(1); // Nothing past the consumed page was fetched
+
+        requests.clear();
+        List<Integer> all = paginator.stream(baseUrl + "/api/v1/items?per_page=1", "token",
+                CanvasJsonDecoders.assignmentGroup(1)).map(g -> g.id).collect(Collectors.toList());
+        assertThat(all).containsExactly(1, 2, 3);
+    }
+
+    @Test
+    void shouldReuseDecodedPageOn304ForTheSameTokenOnly() {
+        List<String> validators = new CopyOnWriteArrayList<>();
+        server.createContext("/api/v1/items", exchange -> {
+            String token = exchange.getRequestHeaders().getFirst("Authorization");
+            String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+            validators.add(token + " " + ifNoneMatch);
+            exchange.getResponseHeaders().set("ETag", "\"v1\"");
+            if ("\"v1\"".equals(ifNoneMatch)) {
+                respond(exchange, 304, "");
+            } else {
+                respond(exchange, 200, "[{\"id\": 1}, {\"id\": 2}]");
+            }
+        });
+        String url = baseUrl + "/api/v1/items?per_page=100";
+
+        List<Integer> first = paginator.stream(url, "token-a", CanvasJsonDecoders.assignmentGroup(1))
+                .map(g -> g.id).collect(Collectors.toList());
+        List<Integer> revalidated = paginator.stream(url, "token-a", CanvasJsonDecoders.assignmentGroup(1))
+                .map(g -> g.id).collect(Collectors.toList());
+        List<Integer> otherToken = paginator.stream(url, "token-b", CanvasJsonDecoders.assignmentGroup(1))
+                .map(g -> g.id).collect(Collectors.toList());
+
+        assertThat(first).containsExactly(1, 2);
+        assertThat(revalidated).containsExactly(1, 2);
+        assertThat(otherToken).containsExactly(1, 2);
+        // Another user's validators are never sent
+        assertThat(validators).containsExactly("Bearer token-a null", "Bearer token-a \"v1\"", "Bearer token-b null");
+    }
+
+    @Test
+    void shouldRetryCanvasThrottlingWithBackoff() {
+        server.createContext("/api/v1/items", exchange -> {
+            requests.add(exchange.getRequestURI().getRawQuery());
+            if (requests.size() == 1) {
+                exchange.getResponseHeaders().set(CanvasRateLimiter.REMAINING_HEADER, "0");
+                respond(exchange, 403, "403 Forbidden (Rate Limit Exceeded)");
+            } else {
+                respond(exchange, 200, "[{\"id\": 1}]");
+            }
+        });
+
+        long start = System.nanoTime();
+        List<Integer> ids = paginator.stream(baseUrl + "/api/v1/items?per_page=100", "token",
+                CanvasJsonDecoders.assignmentGroup(1)).map(g -> g.id).collect(Collectors.toList());
+
+        assertThat(ids).containsExactly(1);
+        assertThat(requests).hasSize(2);
+        assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(400));
+    }
+
+    @Test
+    void shouldGiveUpAfterMaxRetriesAndNotRetryOtherForbiddens() {
+        server.createContext("/api/v1/throttled", exchange -> {
+            requests.add("throttled");
+            respond(exchange, 403, "403 Forbidden (Rate Limit Exceeded)");
+        });
+        server.createContext("/api/v1/forbidden", exchange -> {
+            requests.add("forbidden");
+            respond(exchange, 403, "{\"status\": \"unauthorized\"}");
+        });
+
+        assertThatThrownBy(() -> paginator.stream(baseUrl + "/api/v1/throttled?per_page=100", "token",
+                CanvasJsonDecoders.assignmentGroup(1)).count()).isInstanceOf(HttpClientErrorException.Forbidden.class);
+        assertThatThrownBy(() -> paginator.stream(baseUrl + "/api/v1/forbidden?per_page=100", "token",
+                CanvasJsonDecoders.assignmentGroup(1)).count()).isInstanceOf(HttpClientErrorException.Forbidden.class);
+
+        // maxRetries = 1: one retry for throttling, none for a permission error
+        assertThat(requests).containsExactly("throttled", "throttled", "forbidden");
+    }
+
+    private static int page(HttpExchange exchange) {
+        String query = exchange.getRequestURI().getRawQuery();
+        Matcher matcher = PAGE.matcher(query != null ? query.replace("per_page", "") : "");
+        return matcher.find() ? Integer.parseInt(matcher.group(1)) : 1;
+    }
+
+    private static void respond(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, status == 304 ? -1 : body.length);
+        if (status != 304) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+        exchange.close();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.bestprograteam.canvas_dashboard.model.adapters;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CanvasRateLimiterTest {
+
+    private ExecutorService callers;
+
+    @BeforeEach
+    void setUp() {
+        callers = Executors.newFixedThreadPool(2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+    }
+
+    @Test
+    void shouldRecognizeCanvasThrottling() {
+        HttpHeaders empty = new HttpHeaders();
+        HttpHeaders drained = new HttpHeaders();
+        drained.set(CanvasRateLimiter.REMAINING_HEADER, "0.0");
+
+        assertThat(CanvasRateLimiter.isRateLimited(403, empty, "403 Forbidden (Rate Limit Exceeded)")).isTrue();
+        assertThat(CanvasRateLimiter.isRateLimited(403, drained, "")).isTrue();
+        // A plain 403 is a permission error and must not be retried
+        assertThat(CanvasRateLimiter.isRateLimited(403, empty, "{\"status\": \"unauthorized\"}")).isFalse();
+        assertThat(CanvasRateLimiter.isRateLimited(429, drained, "Rate Limit Exceeded")).isFalse();
+    }
+
+    @Test
+    void shouldBlockBeyondConcurrencyUntilRelease() throws Exception {
+        CanvasRateLimiter limiter = new CanvasRateLimiter(2, 150, 400, 10);
+        limiter.acquire("token");
+        limiter.acquire("token");
+
+        Future<?> third = callers.submit(() -> {
+            limiter.acquire("token");
+            return null;
+        });
+        assertThatThrownBy(() -> third.get(200, TimeUnit.MILLISECONDS)).isInstanceOf(TimeoutException.class);
+
+        limiter.release("token", null);
+        third.get(2, TimeUnit.SECONDS);
+
+        // Other tokens have their own budget
+        limiter.acquire("other-token");
+    }
+
+    @Test
+    void shouldSerializeAndPaceAfterThrottling() throws Exception {
+        CanvasRateLimiter limiter = new CanvasRateLimiter(4, 150, 400, 10);
+        limiter.throttled("token", 0);
+
+        long start = System.nanoTime();
+        limiter.acquire("token");
+        long waitedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertThat(waitedMillis).isGreaterThanOrEqualTo(400);
+
+        // Concurrency is down to one until responses show a healthy bucket again
+        Future<?> second = callers.submit(() -> {
+            limiter.acquire("token");
+            return null;
+        });
+        assertThatThrownBy(() -> second.get(200, TimeUnit.MILLISECONDS)).isInstanceOf(TimeoutException.class);
+        HttpHeaders healthy = new HttpHeaders();
+        healthy.set(CanvasRateLimiter.REMAINING_HEADER, "700");
+        limiter.release("token", healthy);
+        second.get(2, TimeUnit.SECONDS);
+    }
+}
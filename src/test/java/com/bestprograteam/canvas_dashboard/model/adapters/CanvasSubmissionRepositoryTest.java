@@ -0,0 +1,98 @@
+package com.bestprograteam.canvas_dashboard.model.adapters;
+
+import com.bestprograteam.canvas_dashboard.model.entities.Submission;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the submission adapter against a local stub of Canvas' REST API.
+ */
+class CanvasSubmissionRepositoryTest {
+
+    private static final String CHANGED = """
+            [{"assignment_id": 1001, "course_id": 101, "score": 9.5, "workflow_state": "graded",
+              "graded_at": "2025-03-12T15:00:00Z", "late": false},
+             {"assignment_id": 2002, "score": 30.0, "workflow_state": "graded",
+              "graded_at": "2025-03-12T16:00:00Z"}]
+            """;
+
+    private HttpServer server;
+    private final List<String> paths = new CopyOnWriteArrayList<>();
+    private final List<String> queries = new CopyOnWriteArrayList<>();
+    private ExecutorService prefetchExecutor;
+    private CanvasSubmissionRepository repository;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/api/v1/courses", exchange -> {
+            paths.add(exchange.getRequestURI().getPath());
+            queries.add(exchange.getRequestURI().getRawQuery());
+            byte[] body = CHANGED.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+
+        prefetchExecutor = Executors.newFixedThreadPool(2);
+        CanvasPaginator paginator = new CanvasPaginator(new RestTemplate(), new ConditionalRequestCache(1, 100),
+                new CanvasRateLimiter(8, 150, 400, 10), prefetchExecutor, 3);
+        repository = new CanvasSubmissionRepository(paginator);
+        ReflectionTestUtils.setField(repository, "canvasInstanceUrl", "http://127.0.0.1:" + server.getAddress().getPort());
+
+        Map<String, Object> details = new HashMap<>();
+        details.put("apiToken", "test-token");
+        UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                "42", "test-token", List.of(new SimpleGrantedAuthority("ROLE_USER")));
+        authentication.setDetails(details);
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        prefetchExecutor.shutdownNow();
+        server.stop(0);
+    }
+
+    @Test
+    void shouldFetchChangedSubmissionsOfAllCoursesInOneQuery() {
+        List<Submission> changed = repository.findSubmissionsGradedSince(List.of(101, 102),
+                LocalDateTime.of(2025, 3, 1, 8, 0));
+
+        assertThat(paths).containsExactly("/api/v1/courses/101/students/submissions");
+        assertThat(queries.get(0))
+                .contains("student_ids%5B%5D=self")
+                .contains("course_ids%5B%5D=101&course_ids%5B%5D=102")
+                .contains("graded_since=2025-03-01T")
+                .doesNotContain("%255B");
+
+        assertThat(changed).extracting(s -> s.assignmentId).containsExactly(1001, 2002);
+        assertThat(changed.get(0).courseId).isEqualTo(101);
+        assertThat(changed.get(0).score).isEqualTo(9.5);
+        // Without course_id the caller places the submission by its assignment
+        assertThat(changed.get(1).courseId).isNull();
+    }
+}
@@ -0,0 +1,43 @@
+package com.bestprograteam.canvas_dashboard.model.adapters;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.ZoneId;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CanvasTimestampsTest {
+
+    @Test
+    void shouldParseCanvasFormats() {
+        long expected = Instant.parse("2025-03-14T23:59:59Z").toEpochMilli();
+
+        assertThat(CanvasTimestamps.parseEpochMillis("2025-03-14T23:59:59Z")).isEqualTo(expected);
+        assertThat(CanvasTimestamps.parseEpochMillis("2025-03-14T23:59:59.250Z")).isEqualTo(expected + 250);
+        assertThat(CanvasTimestamps.parseEpochMillis("2025-03-14T17:59:59-06:00")).isEqualTo(expected);
+        assertThat(CanvasTimestamps.parseEpochMillis("2025-03-14T17:59:59-0600")).isEqualTo(expected);
+        assertThat(CanvasTimestamps.parseEpochMillis("2025-03-14T23:59:59")).isEqualTo(expected);
+        assertThat(CanvasTimestamps.parseEpochMillis("2025-02-30T00:00:00Z")).isEqualTo(CanvasTimestamps.INVALID);
+        assertThat(CanvasTimestamps.parseEpochMillis("not a date")).isEqualTo(CanvasTimestamps.INVALID);
+    }
+
+    @Test
+    void shouldKeepTheZoneOnceFixed() {
+        ZoneId zone = CanvasTimestamps.zone();
+        ZoneId other = ZoneId.of(zone.equals(ZoneId.of("Pacific/Auckland")) ? "America/Guatemala" : "Pacific/Auckland");
+
+        CanvasTimestamps.fixZone(zone); // Same zone again is allowed
+
+        assertThatThrownBy(() -> CanvasTimestamps.fixZone(other)).isInstanceOf(IllegalStateException.class);
+        assertThat(CanvasTimestamps.zone()).isEqualTo(zone);
+    }
+
+    @Test
+    void shouldRoundTripThroughTheDashboardZone() {
+        long millis = Instant.parse("2025-03-14T23:59:59Z").toEpochMilli();
+
+        assertThat(CanvasTimestamps.toEpochMillis(CanvasTimestamps.toLocalDateTime(millis))).isEqualTo(millis);
+    }
+}
@@ -0,0 +1,121 @@
+package com.bestprograteam.canvas_dashboard.model.adapters;
+
+import com.bestprograteam.canvas_dashboard.model.entities.Assignment;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the planner adapter against a local stub of Canvas' REST API.
+ */
+class CanvasUpcomingRepositoryTest {
+
+    private HttpServer server;
+    private final List<String> queries = new CopyOnWriteArrayList<>();
+    private volatile int status = 200;
+    private ExecutorService prefetchExecutor;
+    private CanvasUpcomingRepository repository;
+
+    private static String plannerItems() {
+        Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        return """
+                [{"plannable_type": "assignment", "plannable_id": 1001, "course_id": 101,
+                  "plannable_date": "%3$s",
+                  "plannable": {"id": 1001, "title": "Essay", "due_at": "%3$s", "points_possible": 20.0,
+                                "assignment_group_id": 7}},
+                 {"plannable_type": "quiz", "plannable_id": 55, "course_id": 102,
+                  "plannable_date": "%1$s",
+                  "plannable": {"id": 55, "title": "Quiz 3", "assignment_id": 2002, "due_at": "%1$s",
+                                "points_possible": 10.0}},
+                 {"plannable_type": "discussion_topic", "plannable_id": 77, "course_id": 101,
+                  "plannable_date": "%2$s",
+                  "plannable": {"id": 77, "title": "Forum", "assignment_id": 3003}},
+                 {"plannable_type": "planner_note", "plannable_id": 9, "plannable_date": "%1$s",
+                  "plannable": {"id": 9, "title": "Buy books"}},
+                 {"plannable_type": "discussion_topic", "plannable_id": 78, "course_id": 101,
+                  "plannable_date": "%1$s", "plannable": {"id": 78, "title": "Ungraded chat"}},
+                 {"plannable_type": "assignment", "plannable_id": 1004, "course_id": 101,
+                  "plannable_date": "%4$s",
+                  "plannable": {"id": 1004, "title": "Too late", "due_at": "%4$s"}}]
+                """.formatted(now.plus(1, ChronoUnit.DAYS), now.plus(2, ChronoUnit.DAYS),
+                now.plus(3, ChronoUnit.DAYS), now.plus(9, ChronoUnit.DAYS));
+    }
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/api/v1/planner/items", exchange -> {
+            queries.add(exchange.getRequestURI().getRawQuery());
+            byte[] body = (status == 200 ? plannerItems() : "{}").getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+
+        prefetchExecutor = Executors.newFixedThreadPool(2);
+        CanvasPaginator paginator = new CanvasPaginator(new RestTemplate(), new ConditionalRequestCache(1, 100),
+                new CanvasRateLimiter(8, 150, 400, 10), prefetchExecutor, 3);
+        repository = new CanvasUpcomingRepository(paginator);
+        ReflectionTestUtils.setField(repository, "canvasInstanceUrl", "http://127.0.0.1:" + server.getAddress().getPort());
+
+        Map<String, Object> details = new HashMap<>();
+        details.put("apiToken", "test-token");
+        UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                "42", "test-token", List.of(new SimpleGrantedAuthority("ROLE_USER")));
+        authentication.setDetails(details);
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        prefetchExecutor.shutdownNow();
+        server.stop(0);
+    }
+
+    @Test
+    void shouldListGradableItemsAcrossCoursesSortedByDueDate() {
+        List<Assignment> upcoming = repository.findUpcomingAssignments(7);
+
+        assertThat(queries).hasSize(1);
+        assertThat(queries.get(0)).contains("start_date=").contains("end_date=").contains("per_page=100");
+
+        // Notes and ungraded discussions are left out; quizzes and discussions use their assignment id
+        assertThat(upcoming).extracting(a -> a.id).containsExactly(2002, 3003, 1001);
+        assertThat(upcoming).extracting(a -> a.courseId).containsExactly(102, 101, 101);
+        assertThat(upcoming.get(0).name).isEqualTo("Quiz 3");
+        assertThat(upcoming.get(0).pointsPossible).isEqualTo(10.0);
+        // Without due_at the planner date is used
+        assertThat(upcoming.get(1).dueAt).isNotNull();
+        assertThat(upcoming.get(2).assignmentGroupId).isEqualTo(7);
+    }
+
+    @Test
+    void shouldReturnNullWhenCanvasFails() {
+        status = 500;
+
+        assertThat(repository.findUpcomingAssignments(7)).isNull();
+    }
+}
@@ -0,0 +1,41 @@
+package com.bestprograteam.canvas_dashboard.model.adapters;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConditionalRequestCacheTest {
+
+    @Test
+    void shouldKeyValidatorsByTokenAndUrl() {
+        ConditionalRequestCache cache = new ConditionalRequestCache(1, 100);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag("\"v1\"");
+        Object page = List.of("course");
+
+        cache.store("token-a", "https://canvas.test/api/v1/courses", headers, page);
+
+        ConditionalRequestCache.Entry entry = cache.get("token-a", "https://canvas.test/api/v1/courses");
+        assertThat(entry.etag()).isEqualTo("\"v1\"");
+        assertThat(entry.page()).isSameAs(page);
+        assertThat(cache.get("token-b", "https://canvas.test/api/v1/courses")).isNull();
+        assertThat(cache.get("token-a", "https://canvas.test/api/v1/courses?page=2")).isNull();
+    }
+
+    @Test
+    void shouldKeepLastModifiedAndForgetUrlsWithoutValidators() {
+        ConditionalRequestCache cache = new ConditionalRequestCache(1, 100);
+        HttpHeaders validated = new HttpHeaders();
+        validated.set(HttpHeaders.LAST_MODIFIED, "Wed, 12 Mar 2025 15:00:00 GMT");
+        cache.store("token", "https://canvas.test/a", validated, List.of());
+
+        assertThat(cache.get("token", "https://canvas.test/a").lastModified())
+                .isEqualTo("Wed, 12 Mar 2025 15:00:00 GMT");
+
+        cache.store("token", "https://canvas.test/a", new HttpHeaders(), List.of());
+        assertThat(cache.get("token", "https://canvas.test/a")).isNull();
+    }
+}
@@ -0,0 +1,131 @@
+package com.bestprograteam.canvas_dashboard.model.adapters.cache;
+
+import com.bestprograteam.canvas_dashboard.model.entities.Assignment;
+import com.bestprograteam.canvas_dashboard.model.entities.Submission;
+import com.bestprograteam.canvas_dashboard.model.repositories.AssignmentRepository;
+import com.bestprograteam.canvas_dashboard.model.repositories.SubmissionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CachedAssignmentRepositoryTest {
+
+    @Mock
+    private AssignmentRepository delegate;
+
+    @Mock
+    private SubmissionRepository submissionDelegate;
+
+    private RepositoryCache cache;
+
+    private CachedAssignmentRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        // Submissions TTL 0: every read is due for a delta
+        cache = new RepositoryCache(600, 120, 300, 0, 1800, 120, 24, 100);
+        repository = new CachedAssignmentRepository(delegate, submissionDelegate, cache);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("42", "test-token", List.of()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void shouldMergeGradedSinceDeltaWithoutReloadingCourse() {
+        when(delegate.findAssignmentsWithSubmissions(101)).thenReturn(List.of(assignment(1, null), assignment(2, null)));
+        List<Assignment> first = repository.findAssignmentsWithSubmissions(101);
+
+        Submission graded = new Submission(2, 9.0, "graded", LocalDateTime.now(), false);
+        graded.courseId = 101;
+        when(submissionDelegate.findSubmissionsGradedSince(eq(List.of(101)), any())).thenReturn(List.of(graded));
+        List<Assignment> second = repository.findAssignmentsWithSubmissions(101);
+
+        assertThat(second.get(1).submission.score).isEqualTo(9.0);
+        assertThat(second.get(0).submission).isNull();
+        // The list handed out before is shared and must not change underneath its reader
+        assertThat(first.get(1).submission).isNull();
+        verify(delegate, times(1)).findAssignmentsWithSubmissions(101);
+    }
+
+    @Test
+    void shouldFindCourseOfDeltaWithoutCourseId() {
+        when(delegate.findAssignmentsWithSubmissions(101)).thenReturn(List.of(assignment(1, null)));
+        when(delegate.findAssignmentsWithSubmissions(102)).thenReturn(List.of(assignment(7, null)));
+        repository.findAssignmentsWithSubmissions(101);
+        repository.findAssignmentsWithSubmissions(102);
+
+        when(submissionDelegate.findSubmissionsGradedSince(any(), any()))
+                .thenReturn(List.of(new Submission(7, 4.0, "graded", LocalDateTime.now(), false)));
+        repository.findAssignmentsWithSubmissions(101);
+
+        assertThat(repository.findAssignmentsWithSubmissions(102).get(0).submission.score).isEqualTo(4.0);
+        verify(delegate, times(1)).findAssignmentsWithSubmissions(102);
+    }
+
+    @Test
+    void shouldReloadCourseWhenDeltaHasUnknownAssignment() {
+        when(delegate.findAssignmentsWithSubmissions(101))
+                .thenReturn(List.of(assignment(1, null)))
+                .thenReturn(List.of(assignment(1, null), assignment(3, new Submission(3, 7.0, "graded", LocalDateTime.now(), false))));
+        repository.findAssignmentsWithSubmissions(101);
+
+        Submission graded = new Submission(3, 7.0, "graded", LocalDateTime.now(), false);
+        graded.courseId = 101;
+        when(submissionDelegate.findSubmissionsGradedSince(any(), any())).thenReturn(List.of(graded));
+        List<Assignment> reloaded = repository.findAssignmentsWithSubmissions(101);
+
+        assertThat(reloaded).extracting(a -> a.id).containsExactly(1, 3);
+        verify(delegate, times(2)).findAssignmentsWithSubmissions(101);
+    }
+
+    @Test
+    void shouldKeepCachedListWhenDeltaFails() {
+        when(delegate.findAssignmentsWithSubmissions(101)).thenReturn(List.of(assignment(1, null)));
+        repository.findAssignmentsWithSubmissions(101);
+
+        when(submissionDelegate.findSubmissionsGradedSince(any(), any())).thenReturn(null);
+        List<Assignment> cached = repository.findAssignmentsWithSubmissions(101);
+
+        assertThat(cached).extracting(a -> a.id).containsExactly(1);
+        verify(delegate, times(1)).findAssignmentsWithSubmissions(101);
+    }
+
+    @Test
+    void shouldNotSyncBeforeAnyCourseIsCached() {
+        when(delegate.findAssignmentsWithSubmissions(101)).thenReturn(List.of());
+
+        repository.findAssignmentsWithSubmissions(101);
+        repository.findAssignmentsWithSubmissions(101);
+
+        // Empty lists are never cached, so there is nothing to merge into
+        verify(delegate, times(2)).findAssignmentsWithSubmissions(101);
+        verify(submissionDelegate, never()).findSubmissionsGradedSince(any(), any());
+    }
+
+    private static Assignment assignment(int id, Submission submission) {
+        Assignment assignment = new Assignment(id, 101, "Assignment " + id, null, 10.0, 1, "published");
+        assignment.submission = submission;
+        return assignment;
+    }
+}
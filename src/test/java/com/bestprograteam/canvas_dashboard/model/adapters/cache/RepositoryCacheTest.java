@@ -0,0 +1,164 @@
+package com.bestprograteam.canvas_dashboard.model.adapters.cache;
+
+import com.bestprograteam.canvas_dashboard.model.entities.AssignmentGroup;
+import com.bestprograteam.canvas_dashboard.model.entities.Course;
+import com.bestprograteam.canvas_dashboard.model.repositories.AssignmentGroupRepository;
+import com.bestprograteam.canvas_dashboard.model.repositories.CourseRepository;
+import com.bestprograteam.canvas_dashboard.model.repositories.UpcomingRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * RepositoryCache through the caching decorators that share it.
+ */
+@ExtendWith(MockitoExtension.class)
+class RepositoryCacheTest {
+
+    @Mock
+    private CourseRepository courseDelegate;
+
+    @Mock
+    private AssignmentGroupRepository groupDelegate;
+
+    @Mock
+    private UpcomingRepository upcomingDelegate;
+
+    private RepositoryCache cache;
+
+    private CachedCourseRepository courses;
+
+    private CachedAssignmentGroupRepository groups;
+
+    private CachedUpcomingRepository upcoming;
+
+    @BeforeEach
+    void setUp() {
+        cache = new RepositoryCache(600, 120, 300, 120, 1800, 120, 24, 100);
+        courses = new CachedCourseRepository(courseDelegate, cache);
+        groups = new CachedAssignmentGroupRepository(groupDelegate, cache);
+        upcoming = new CachedUpcomingRepository(upcomingDelegate, cache);
+        loginAs("42");
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void shouldServeRepeatedReadsFromCache() {
+        when(courseDelegate.findAllActiveCourses()).thenReturn(List.of(course("101")));
+
+        courses.findAllActiveCourses();
+        List<Course> cached = courses.findAllActiveCourses();
+
+        assertThat(cached).extracting(c -> c.id).containsExactly("101");
+        verify(courseDelegate, times(1)).findAllActiveCourses();
+    }
+
+    @Test
+    void shouldKeepUsersApart() {
+        when(courseDelegate.findAllActiveCourses())
+                .thenReturn(List.of(course("101")))
+                .thenReturn(List.of(course("202")));
+        courses.findAllActiveCourses();
+
+        loginAs("43");
+        assertThat(courses.findAllActiveCourses()).extracting(c -> c.id).containsExactly("202");
+
+        loginAs("42");
+        assertThat(courses.findAllActiveCourses()).extracting(c -> c.id).containsExactly("101");
+        verify(courseDelegate, times(2)).findAllActiveCourses();
+    }
+
+    @Test
+    void shouldNotCacheEmptyLists() {
+        // Adapters return an empty list when Canvas fails
+        when(groupDelegate.findAssignmentGroupsByCourseId(101))
+                .thenReturn(List.of())
+                .thenReturn(List.of(new AssignmentGroup(1, 101, "Exams", 1, 60.0)));
+
+        assertThat(groups.findAssignmentGroupsByCourseId(101)).isEmpty();
+        assertThat(groups.findAssignmentGroupsByCourseId(101)).hasSize(1);
+        assertThat(groups.findAssignmentGroupsByCourseId(101)).hasSize(1);
+        verify(groupDelegate, times(2)).findAssignmentGroupsByCourseId(101);
+    }
+
+    @Test
+    void shouldCacheEmptyUpcomingListButNotFailure() {
+        when(upcomingDelegate.findUpcomingAssignments(7))
+                .thenReturn(null)
+                .thenReturn(List.of());
+
+        assertThat(upcoming.findUpcomingAssignments(7)).isNull();
+        assertThat(upcoming.findUpcomingAssignments(7)).isEmpty();
+        assertThat(upcoming.findUpcomingAssignments(7)).isEmpty();
+        verify(upcomingDelegate, times(2)).findUpcomingAssignments(7);
+    }
+
+    @Test
+    void shouldNotCacheWithoutAuthenticatedUser() {
+        SecurityContextHolder.clearContext();
+        when(courseDelegate.findAllActiveCourses()).thenReturn(List.of(course("101")));
+
+        courses.findAllActiveCourses();
+        courses.findAllActiveCourses();
+
+        verify(courseDelegate, times(2)).findAllActiveCourses();
+    }
+
+    @Test
+    void shouldDropOnlyTheInvalidatedCourse() {
+        when(groupDelegate.findAssignmentGroupsByCourseId(101)).thenReturn(List.of(new AssignmentGroup(1, 101, "Exams", 1, 60.0)));
+        when(groupDelegate.findAssignmentGroupsByCourseId(102)).thenReturn(List.of(new AssignmentGroup(2, 102, "Labs", 1, 100.0)));
+        groups.findAssignmentGroupsByCourseId(101);
+        groups.findAssignmentGroupsByCourseId(102);
+
+        cache.invalidateCourse("42", 101);
+        groups.findAssignmentGroupsByCourseId(101);
+        groups.findAssignmentGroupsByCourseId(102);
+
+        verify(groupDelegate, times(2)).findAssignmentGroupsByCourseId(101);
+        verify(groupDelegate, times(1)).findAssignmentGroupsByCourseId(102);
+    }
+
+    @Test
+    void shouldDropOnlyTheInvalidatedUser() {
+        when(courseDelegate.findAllActiveCourses()).thenReturn(List.of(course("101")));
+        courses.findAllActiveCourses();
+        loginAs("43");
+        courses.findAllActiveCourses();
+
+        cache.invalidateUser("42");
+        courses.findAllActiveCourses();
+        loginAs("42");
+        courses.findAllActiveCourses();
+
+        // One load per user, plus the reload for the invalidated one
+        verify(courseDelegate, times(3)).findAllActiveCourses();
+    }
+
+    private static void loginAs(String userId) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(userId, "test-token", List.of()));
+    }
+
+    private static Course course(String id) {
+        Course course = new Course();
+        course.id = id;
+        return course;
+    }
+}
@@ -0,0 +1,78 @@
+package com.bestprograteam.canvas_dashboard.model.adapters.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TtlCacheTest {
+
+    @Test
+    void shouldExpireEntriesAfterTtl() {
+        // A zero TTL expires every entry as soon as it is stored
+        TtlCache<String, String> cache = new TtlCache<>(Duration.ZERO, 10);
+        cache.put("a", "1");
+
+        assertThat(cache.get("a")).isNull();
+        assertThat(cache.size()).isZero();
+        assertThat(cache.update("a", v -> v + "!")).isFalse();
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedEntry() {
+        TtlCache<String, String> cache = new TtlCache<>(Duration.ofMinutes(5), 2);
+        cache.put("a", "1");
+        cache.put("b", "2");
+        cache.get("a"); // "b" is now the eldest
+
+        cache.put("c", "3");
+
+        assertThat(cache.get("a")).isEqualTo("1");
+        assertThat(cache.get("b")).isNull();
+        assertThat(cache.get("c")).isEqualTo("3");
+        assertThat(cache.size()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldNotStoreValuesRejectedByCacheable() {
+        TtlCache<String, String> cache = new TtlCache<>(Duration.ofMinutes(5), 10);
+        AtomicInteger loads = new AtomicInteger();
+
+        assertThat(cache.getOrLoad("a", () -> "x" + loads.incrementAndGet(), v -> false)).isEqualTo("x1");
+        assertThat(cache.getOrLoad("a", () -> "x" + loads.incrementAndGet(), v -> true)).isEqualTo("x2");
+        assertThat(cache.getOrLoad("a", () -> "x" + loads.incrementAndGet(), v -> true)).isEqualTo("x2");
+        assertThat(cache.getOrLoad("b", () -> null, v -> true)).isNull();
+
+        assertThat(loads).hasValue(2);
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldUpdateLiveEntryInPlace() {
+        TtlCache<String, String> cache = new TtlCache<>(Duration.ofMinutes(5), 10);
+        cache.put("a", "1");
+
+        assertThat(cache.update("a", v -> v + "!")).isTrue();
+        assertThat(cache.update("missing", v -> v + "!")).isFalse();
+
+        assertThat(cache.get("a")).isEqualTo("1!");
+        assertThat(cache.get("missing")).isNull();
+    }
+
+    @Test
+    void shouldInvalidateMatchingKeys() {
+        TtlCache<String, String> cache = new TtlCache<>(Duration.ofMinutes(5), 10);
+        cache.put("user1:a", "1");
+        cache.put("user1:b", "2");
+        cache.put("user2:a", "3");
+
+        cache.invalidateIf(key -> key.startsWith("user1:"));
+        assertThat(cache.get("user2:a")).isEqualTo("3");
+        assertThat(cache.size()).isEqualTo(1);
+
+        cache.invalidate("user2:a");
+        assertThat(cache.size()).isZero();
+    }
+}
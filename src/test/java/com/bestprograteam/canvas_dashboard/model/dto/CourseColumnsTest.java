@@ -0,0 +1,73 @@
+package com.bestprograteam.canvas_dashboard.model.dto;
+
+import com.bestprograteam.canvas_dashboard.model.entities.Assignment;
+import com.bestprograteam.canvas_dashboard.model.entities.Submission;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class CourseColumnsTest {
+
+    // Any conversion will do; the columns only store what the caller's function returns
+    private static final ToLongFunction<LocalDateTime> DAY_OF_MONTH = time -> time.getDayOfMonth();
+
+    @Test
+    void shouldJoinAssignmentsToSubmissionsRowByRow() {
+        List<Assignment> assignments = List.of(
+                new Assignment(1, 101, "Midterm", LocalDateTime.of(2025, 3, 10, 23, 59), 100.0, 7, "published"),
+                new Assignment(2, 101, "Homework", LocalDateTime.of(2025, 3, 20, 23, 59), 10.0, 8, "published"));
+        Map<Integer, Submission> submissions = Map.of(
+                1, new Submission(1, 88.0, "graded", LocalDateTime.of(2025, 3, 12, 15, 0), false));
+
+        CourseColumns columns = CourseColumns.of(assignments, submissions::get, DAY_OF_MONTH);
+
+        assertThat(columns.size).isEqualTo(2);
+        assertThat(columns.assignmentIds).containsExactly(1, 2);
+        assertThat(columns.groupIds).containsExactly(7, 8);
+        assertThat(columns.pointsPossible).containsExactly(100.0, 10.0);
+        assertThat(columns.dueAt).containsExactly(10L, 20L);
+        assertThat(columns.gradedAt).containsExactly(12L, CourseColumns.NO_TIME);
+        assertThat(columns.isScored(0)).isTrue();
+        assertThat(columns.isScored(1)).isFalse();
+        assertThat(columns.percentage(0)).isCloseTo(88.0, within(1e-9));
+        assertThat(columns.percentage(1)).isNaN();
+    }
+
+    @Test
+    void shouldUseSentinelsForMissingValues() {
+        List<Assignment> assignments = List.of(new Assignment(null, 101, "Draft", null, null, null, "unpublished"),
+                new Assignment(3, 101, "Excused", null, 10.0, null, "published"));
+        Map<Integer, Submission> submissions = Map.of(3, new Submission(3, null, "excused", null, false));
+
+        CourseColumns columns = CourseColumns.of(assignments, submissions::get, DAY_OF_MONTH);
+
+        assertThat(columns.assignmentIds).containsExactly(CourseColumns.NO_ID, 3);
+        assertThat(columns.groupIds).containsExactly(CourseColumns.NO_ID, CourseColumns.NO_ID);
+        assertThat(columns.pointsPossible[0]).isNaN();
+        assertThat(columns.dueAt).containsExactly(CourseColumns.NO_TIME, CourseColumns.NO_TIME);
+        assertThat(columns.scores[1]).isNaN();
+        assertThat(columns.gradedAt).containsExactly(CourseColumns.NO_TIME, CourseColumns.NO_TIME);
+    }
+
+    @Test
+    void shouldBuildOneRowPerRecentGradeInListOrder() {
+        Assignment lab = new Assignment(5, 101, "Lab", null, 20.0, 8, "published");
+        Assignment quiz = new Assignment(4, 101, "Quiz", null, 10.0, 7, "published");
+        List<RecentGrade> grades = List.of(
+                new RecentGrade(new Submission(5, 15.0, "graded", LocalDateTime.of(2025, 3, 14, 9, 0), false), lab),
+                new RecentGrade(new Submission(4, 10.0, "graded", LocalDateTime.of(2025, 3, 2, 9, 0), false), quiz));
+
+        CourseColumns columns = CourseColumns.ofGrades(grades, DAY_OF_MONTH);
+
+        assertThat(columns.assignmentIds).containsExactly(5, 4);
+        assertThat(columns.gradedAt).containsExactly(14L, 2L);
+        assertThat(columns.percentage(0)).isCloseTo(75.0, within(1e-9));
+        assertThat(columns.percentage(1)).isCloseTo(100.0, within(1e-9));
+    }
+}
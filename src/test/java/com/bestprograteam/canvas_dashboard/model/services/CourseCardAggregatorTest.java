@@ -0,0 +1,168 @@
+package com.bestprograteam.canvas_dashboard.model.services;
+
+import com.bestprograteam.canvas_dashboard.model.dto.CategoryBreakdown;
+import com.bestprograteam.canvas_dashboard.model.dto.RecentGrade;
+import com.bestprograteam.canvas_dashboard.model.entities.Assignment;
+import com.bestprograteam.canvas_dashboard.model.entities.AssignmentGroup;
+import com.bestprograteam.canvas_dashboard.model.entities.Submission;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Checks the single-pass aggregation against the multi-pass computation it replaced.
+ */
+class CourseCardAggregatorTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 3, 15, 12, 0);
+
+    private static final List<AssignmentGroup> GROUPS = List.of(
+            new AssignmentGroup(1, 101, "Exams", 1, 60.0),
+            new AssignmentGroup(2, 101, "Homework", 2, 40.0),
+            new AssignmentGroup(3, 101, "Empty", 3, 0.0));
+
+    private static final List<Assignment> ASSIGNMENTS = List.of(
+            new Assignment(1, 101, "Midterm", NOW.minusDays(5), 100.0, 1, "published"),
+            new Assignment(2, 101, "Final", NOW.plusDays(3), 100.0, 1, "published"),
+            new Assignment(3, 101, "Homework 1", NOW.minusDays(10), 10.0, 2, "published"),
+            new Assignment(4, 101, "Homework 2", NOW.minusDays(3), 10.0, 2, "published"),
+            new Assignment(5, 101, "Homework 3", NOW.plusDays(1), 10.0, 2, "published"),
+            new Assignment(6, 101, "Extra Credit", NOW.minusDays(1), 5.0, null, "published"),
+            new Assignment(7, 101, "Reading", NOW.plusDays(2), null, null, "published"),
+            new Assignment(8, 101, "Quiz", NOW.plusDays(10), 20.0, 2, "published"));
+
+    private static final List<Submission> SUBMISSIONS = List.of(
+            new Submission(1, 80.0, "graded", NOW.minusDays(4), false),
+            new Submission(3, 9.0, "graded", NOW.minusDays(9), false),
+            new Submission(4, null, "excused", NOW.minusDays(2), false),
+            new Submission(5, null, "submitted", null, false),
+            new Submission(6, 5.0, "graded", NOW.minusDays(1), false),
+            new Submission(7, 2.0, "graded", NOW.minusDays(6), false),
+            new Submission(8, 15.0, "graded", NOW.minusDays(3), true));
+
+    @Test
+    void shouldMatchMultiPassComputation() {
+        CourseCardAggregator.Result result = CourseCardAggregator.aggregate(ASSIGNMENTS, SUBMISSIONS, GROUPS, NOW, true);
+
+        assertThat(result.recentGrades).extracting(rg -> rg.assignment.id)
+                .containsExactlyElementsOf(ids(referenceRecentGrades()))
+                .containsExactly(6, 4, 8, 1, 7);
+        assertThat(result.recentGrades).extracting(rg -> rg.submission)
+                .containsExactlyElementsOf(referenceRecentGrades().stream().map(rg -> rg.submission).toList());
+        assertThat(result.upcomingAssignments).containsExactlyElementsOf(referenceUpcoming())
+                .extracting(a -> a.id).containsExactly(5, 7, 2);
+
+        List<CategoryBreakdown> expected = referenceBreakdown();
+        assertThat(result.categoryBreakdown).hasSameSizeAs(expected);
+        for (int i = 0; i < expected.size(); i++) {
+            CategoryBreakdown actual = result.categoryBreakdown.get(i);
+            assertThat(actual.group).isSameAs(expected.get(i).group);
+            assertThat(actual.currentScore).isCloseTo(expected.get(i).currentScore, within(1e-9));
+            assertThat(actual.pointsEarned).isEqualTo(expected.get(i).pointsEarned);
+            assertThat(actual.pointsTotal).isEqualTo(expected.get(i).pointsTotal);
+            assertThat(actual.completedAssignments).isEqualTo(expected.get(i).completedAssignments);
+            assertThat(actual.totalAssignments).isEqualTo(expected.get(i).totalAssignments);
+        }
+
+        assertThat(result.remainingPercentage).isCloseTo(referenceRemainingPercentage(), within(1e-9));
+    }
+
+    @Test
+    void shouldReportRecentPercentagesWithNaNForMissingScoreOrPoints() {
+        CourseCardAggregator.Result result = CourseCardAggregator.aggregate(ASSIGNMENTS, SUBMISSIONS, GROUPS, NOW, true);
+
+        // Extra Credit 5/5, excused Homework 2, Quiz 15/20, Midterm 80/100, Reading without points
+        assertThat(result.recentPercentages[0]).isCloseTo(100.0, within(1e-9));
+        assertThat(result.recentPercentages[1]).isNaN();
+        assertThat(result.recentPercentages[2]).isCloseTo(75.0, within(1e-9));
+        assertThat(result.recentPercentages[3]).isCloseTo(80.0, within(1e-9));
+        assertThat(result.recentPercentages[4]).isNaN();
+    }
+
+    @Test
+    void shouldLeaveUpcomingEmptyWhenNotRequested() {
+        CourseCardAggregator.Result result = CourseCardAggregator.aggregate(ASSIGNMENTS, SUBMISSIONS, GROUPS, NOW, false);
+
+        assertThat(result.upcomingAssignments).isEmpty();
+        assertThat(result.recentGrades).hasSize(CourseCardAggregator.RECENT_LIMIT);
+    }
+
+    // The multi-pass computation from before the single-pass aggregator, one stream per output
+
+    private static List<RecentGrade> referenceRecentGrades() {
+        return SUBMISSIONS.stream()
+                .filter(s -> s.gradedAt != null)
+                .sorted(Comparator.comparing((Submission s) -> s.gradedAt).reversed())
+                .limit(5)
+                .map(submission -> ASSIGNMENTS.stream()
+                        .filter(a -> a.id.equals(submission.assignmentId))
+                        .findFirst()
+                        .map(assignment -> new RecentGrade(submission, assignment))
+                        .orElse(null))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    private static List<CategoryBreakdown> referenceBreakdown() {
+        return GROUPS.stream()
+                .map(group -> {
+                    List<Assignment> groupAssignments = ASSIGNMENTS.stream()
+                            .filter(a -> group.id.equals(a.assignmentGroupId))
+                            .toList();
+                    double earnedPoints = 0.0;
+                    double totalPoints = 0.0;
+                    int completedCount = 0;
+                    for (Assignment assignment : groupAssignments) {
+                        Submission submission = submissionFor(assignment);
+                        if (assignment.pointsPossible != null && submission != null && submission.score != null) {
+                            earnedPoints += submission.score;
+                            totalPoints += assignment.pointsPossible;
+                            completedCount++;
+                        }
+                    }
+                    double currentScore = totalPoints > 0 ? (earnedPoints * 100.0 / totalPoints) : 0.0;
+                    return new CategoryBreakdown(group, currentScore, (int) earnedPoints, (int) totalPoints,
+                            completedCount, groupAssignments.size());
+                })
+                .collect(Collectors.toList());
+    }
+
+    private static List<Assignment> referenceUpcoming() {
+        LocalDateTime futureLimit = NOW.plusDays(CourseCardAggregator.UPCOMING_DAYS);
+        return ASSIGNMENTS.stream()
+                .filter(a -> a.dueAt != null)
+                .filter(a -> a.dueAt.isAfter(NOW) && a.dueAt.isBefore(futureLimit))
+                .sorted(Comparator.comparing((Assignment a) -> a.dueAt))
+                .collect(Collectors.toList());
+    }
+
+    private static double referenceRemainingPercentage() {
+        double totalPossiblePoints = 0.0;
+        double gradedPointsPossible = 0.0;
+        for (Assignment assignment : ASSIGNMENTS) {
+            if (assignment.pointsPossible != null) {
+                totalPossiblePoints += assignment.pointsPossible;
+                Submission submission = submissionFor(assignment);
+                if (submission != null && submission.score != null) {
+                    gradedPointsPossible += assignment.pointsPossible;
+                }
+            }
+        }
+        return totalPossiblePoints > 0 ? ((totalPossiblePoints - gradedPointsPossible) / totalPossiblePoints) * 100 : 0.0;
+    }
+
+    private static Submission submissionFor(Assignment assignment) {
+        return SUBMISSIONS.stream().filter(s -> s.assignmentId.equals(assignment.id)).findFirst().orElse(null);
+    }
+
+    private static List<Integer> ids(List<RecentGrade> grades) {
+        return grades.stream().map(rg -> rg.assignment.id).toList();
+    }
+}
@@ -0,0 +1,52 @@
+package com.bestprograteam.canvas_dashboard.model.services;
+
+import com.bestprograteam.canvas_dashboard.model.entities.Assignment;
+import com.bestprograteam.canvas_dashboard.model.entities.Submission;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CourseIndexTest {
+
+    @Test
+    void shouldJoinSubmissionsToAssignmentsById() {
+        Assignment first = new Assignment(1, 101, "Lab 1", null);
+        Assignment second = new Assignment(2, 101, "Lab 2", null);
+        Submission graded = new Submission(2, 9.0, "graded", LocalDateTime.now(), false);
+
+        CourseIndex index = CourseIndex.build(List.of(first, second), List.of(graded));
+
+        assertThat(index.assignment(1)).isSameAs(first);
+        assertThat(index.assignment(2)).isSameAs(second);
+        assertThat(index.submissionFor(2)).isSameAs(graded);
+        assertThat(index.submissionFor(1)).isNull();
+        assertThat(index.assignment(3)).isNull();
+    }
+
+    @Test
+    void shouldKeepFirstOccurrenceOfDuplicates() {
+        Assignment original = new Assignment(1, 101, "Lab 1", null);
+        Assignment duplicate = new Assignment(1, 101, "Lab 1 (copy)", null);
+        Submission first = new Submission(1, 8.0, "graded", LocalDateTime.now(), false);
+        Submission second = new Submission(1, 3.0, "graded", LocalDateTime.now(), false);
+
+        CourseIndex index = CourseIndex.build(List.of(original, duplicate), List.of(first, second));
+
+        assertThat(index.assignment(1)).isSameAs(original);
+        assertThat(index.submissionFor(1)).isSameAs(first);
+    }
+
+    @Test
+    void shouldSkipEntriesWithoutIds() {
+        Assignment withoutId = new Assignment(null, 101, "Draft", null);
+        Submission withoutAssignment = new Submission(null, 5.0, "graded", LocalDateTime.now(), false);
+
+        CourseIndex index = CourseIndex.build(List.of(withoutId), List.of(withoutAssignment));
+
+        assertThat(index.assignment(null)).isNull();
+        assertThat(index.submissionFor(null)).isNull();
+    }
+}
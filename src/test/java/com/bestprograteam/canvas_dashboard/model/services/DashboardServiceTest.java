@@ -3,17 +3,29 @@ package com.bestprograteam.canvas_dashboard.model.services;
 import com.bestprograteam.canvas_dashboard.model.dto.*;
 import com.bestprograteam.canvas_dashboard.model.entities.*;
 import com.bestprograteam.canvas_dashboard.model.repositories.*;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutorService;
+import org.springframework.security.core.context.SecurityContextHolder;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -22,31 +34,33 @@ class DashboardServiceTest {
     @Mock
     private CourseRepository courseRepository;
 
-    @Mock
-    private EnrollmentRepository enrollmentRepository;
-
     @Mock
     private AssignmentRepository assignmentRepository;
 
-    @Mock
-    private SubmissionRepository submissionRepository;
-
     @Mock
     private AssignmentGroupRepository assignmentGroupRepository;
 
+    private ExecutorService canvasExecutor;
+
     private DashboardService dashboardService;
 
     @BeforeEach
     void setUp() {
+        // Same shape as the platform-mode canvasExecutor bean
+        canvasExecutor = new DelegatingSecurityContextExecutorService(Executors.newFixedThreadPool(20));
         dashboardService = new DashboardService(
                 courseRepository,
-                enrollmentRepository,
                 assignmentRepository,
-                submissionRepository,
-                assignmentGroupRepository
+                assignmentGroupRepository,
+                canvasExecutor
         );
     }
 
+    @AfterEach
+    void tearDown() {
+        canvasExecutor.shutdownNow();
+    }
+
     @Test
     void shouldFetchDashboardDataSuccessfully() {
         // Arrange
@@ -56,10 +70,8 @@ class DashboardServiceTest {
         List<Submission> submissions = createSubmissions();
         List<AssignmentGroup> groups = createAssignmentGroups(101);
 
-        when(courseRepository.findAllActiveCourses()).thenReturn(List.of(course));
-        when(enrollmentRepository.findAllEnrollments()).thenReturn(List.of(enrollment));
-        when(assignmentRepository.findAssignmentsByCourseId(101)).thenReturn(assignments);
-        when(submissionRepository.findSubmissionsByCourseId(101)).thenReturn(submissions);
+        when(courseRepository.findActiveCoursesWithEnrollments()).thenReturn(withEnrollments(List.of(course), List.of(enrollment)));
+        when(assignmentRepository.findAssignmentsWithSubmissions(101)).thenReturn(withSubmissions(assignments, submissions));
         when(assignmentGroupRepository.findAssignmentGroupsByCourseId(101)).thenReturn(groups);
 
         // Act
@@ -77,8 +89,7 @@ class DashboardServiceTest {
     @Test
     void shouldHandleEmptyCourseList() {
         // Arrange
-        when(courseRepository.findAllActiveCourses()).thenReturn(Collections.emptyList());
-        when(enrollmentRepository.findAllEnrollments()).thenReturn(Collections.emptyList());
+        when(courseRepository.findActiveCoursesWithEnrollments()).thenReturn(Collections.emptyList());
 
         // Act
         DashboardData result = dashboardService.getDashboardData();
@@ -109,10 +120,8 @@ class DashboardServiceTest {
 
         List<AssignmentGroup> groups = createAssignmentGroups(101);
 
-        when(courseRepository.findAllActiveCourses()).thenReturn(List.of(course));
-        when(enrollmentRepository.findAllEnrollments()).thenReturn(List.of(enrollment));
-        when(assignmentRepository.findAssignmentsByCourseId(101)).thenReturn(assignments);
-        when(submissionRepository.findSubmissionsByCourseId(101)).thenReturn(submissions);
+        when(courseRepository.findActiveCoursesWithEnrollments()).thenReturn(withEnrollments(List.of(course), List.of(enrollment)));
+        when(assignmentRepository.findAssignmentsWithSubmissions(101)).thenReturn(withSubmissions(assignments, submissions));
         when(assignmentGroupRepository.findAssignmentGroupsByCourseId(101)).thenReturn(groups);
 
         // Act
@@ -154,10 +163,8 @@ class DashboardServiceTest {
                 createAssignmentGroup(2, 101, "Labs", 20.0)
         );
 
-        when(courseRepository.findAllActiveCourses()).thenReturn(List.of(course));
-        when(enrollmentRepository.findAllEnrollments()).thenReturn(List.of(enrollment));
-        when(assignmentRepository.findAssignmentsByCourseId(101)).thenReturn(assignments);
-        when(submissionRepository.findSubmissionsByCourseId(101)).thenReturn(submissions);
+        when(courseRepository.findActiveCoursesWithEnrollments()).thenReturn(withEnrollments(List.of(course), List.of(enrollment)));
+        when(assignmentRepository.findAssignmentsWithSubmissions(101)).thenReturn(withSubmissions(assignments, submissions));
         when(assignmentGroupRepository.findAssignmentGroupsByCourseId(101)).thenReturn(groups);
 
         // Act
@@ -205,10 +212,8 @@ class DashboardServiceTest {
         List<Submission> submissions = Collections.emptyList();
         List<AssignmentGroup> groups = createAssignmentGroups(101);
 
-        when(courseRepository.findAllActiveCourses()).thenReturn(List.of(course));
-        when(enrollmentRepository.findAllEnrollments()).thenReturn(List.of(enrollment));
-        when(assignmentRepository.findAssignmentsByCourseId(101)).thenReturn(assignments);
-        when(submissionRepository.findSubmissionsByCourseId(101)).thenReturn(submissions);
+        when(courseRepository.findActiveCoursesWithEnrollments()).thenReturn(withEnrollments(List.of(course), List.of(enrollment)));
+        when(assignmentRepository.findAssignmentsWithSubmissions(101)).thenReturn(withSubmissions(assignments, submissions));
         when(assignmentGroupRepository.findAssignmentGroupsByCourseId(101)).thenReturn(groups);
 
         // Act
@@ -234,12 +239,10 @@ class DashboardServiceTest {
                 createEnrollment(102, 90.0, "A")
         );
 
-        when(courseRepository.findAllActiveCourses()).thenReturn(courses);
-        when(enrollmentRepository.findAllEnrollments()).thenReturn(enrollments);
+        when(courseRepository.findActiveCoursesWithEnrollments()).thenReturn(withEnrollments(courses, enrollments));
 
         // Mock repositories to return empty data for simplicity
-        when(assignmentRepository.findAssignmentsByCourseId(any())).thenReturn(Collections.emptyList());
-        when(submissionRepository.findSubmissionsByCourseId(any())).thenReturn(Collections.emptyList());
+        when(assignmentRepository.findAssignmentsWithSubmissions(any())).thenReturn(Collections.emptyList());
         when(assignmentGroupRepository.findAssignmentGroupsByCourseId(any())).thenReturn(Collections.emptyList());
 
         // Act
@@ -274,10 +277,8 @@ class DashboardServiceTest {
 
         List<AssignmentGroup> groups = createAssignmentGroups(101);
 
-        when(courseRepository.findAllActiveCourses()).thenReturn(List.of(course));
-        when(enrollmentRepository.findAllEnrollments()).thenReturn(List.of(enrollment));
-        when(assignmentRepository.findAssignmentsByCourseId(101)).thenReturn(assignments);
-        when(submissionRepository.findSubmissionsByCourseId(101)).thenReturn(submissions);
+        when(courseRepository.findActiveCoursesWithEnrollments()).thenReturn(withEnrollments(List.of(course), List.of(enrollment)));
+        when(assignmentRepository.findAssignmentsWithSubmissions(101)).thenReturn(withSubmissions(assignments, submissions));
         when(assignmentGroupRepository.findAssignmentGroupsByCourseId(101)).thenReturn(groups);
 
         // Act
@@ -311,10 +312,8 @@ class DashboardServiceTest {
 
         List<AssignmentGroup> groups = createAssignmentGroups(101);
 
-        when(courseRepository.findAllActiveCourses()).thenReturn(List.of(course));
-        when(enrollmentRepository.findAllEnrollments()).thenReturn(List.of(enrollment));
-        when(assignmentRepository.findAssignmentsByCourseId(101)).thenReturn(assignments);
-        when(submissionRepository.findSubmissionsByCourseId(101)).thenReturn(submissions);
+        when(courseRepository.findActiveCoursesWithEnrollments()).thenReturn(withEnrollments(List.of(course), List.of(enrollment)));
+        when(assignmentRepository.findAssignmentsWithSubmissions(101)).thenReturn(withSubmissions(assignments, submissions));
         when(assignmentGroupRepository.findAssignmentGroupsByCourseId(101)).thenReturn(groups);
 
         // Act
@@ -348,10 +347,8 @@ class DashboardServiceTest {
 
         List<AssignmentGroup> groups = createAssignmentGroups(101);
 
-        when(courseRepository.findAllActiveCourses()).thenReturn(List.of(course));
-        when(enrollmentRepository.findAllEnrollments()).thenReturn(List.of(enrollment));
-        when(assignmentRepository.findAssignmentsByCourseId(101)).thenReturn(assignments);
-        when(submissionRepository.findSubmissionsByCourseId(101)).thenReturn(submissions);
+        when(courseRepository.findActiveCoursesWithEnrollments()).thenReturn(withEnrollments(List.of(course), List.of(enrollment)));
+        when(assignmentRepository.findAssignmentsWithSubmissions(101)).thenReturn(withSubmissions(assignments, submissions));
         when(assignmentGroupRepository.findAssignmentGroupsByCourseId(101)).thenReturn(groups);
 
         // Act
@@ -368,10 +365,8 @@ class DashboardServiceTest {
         Course course = createCourse("101", "Data Structures", "CS2021");
         Enrollment enrollment = createEnrollment(101, 85.0, "B");
 
-        when(courseRepository.findAllActiveCourses()).thenReturn(List.of(course));
-        when(enrollmentRepository.findAllEnrollments()).thenReturn(List.of(enrollment));
-        when(assignmentRepository.findAssignmentsByCourseId(101)).thenReturn(Collections.emptyList());
-        when(submissionRepository.findSubmissionsByCourseId(101)).thenReturn(Collections.emptyList());
+        when(courseRepository.findActiveCoursesWithEnrollments()).thenReturn(withEnrollments(List.of(course), List.of(enrollment)));
+        when(assignmentRepository.findAssignmentsWithSubmissions(101)).thenReturn(Collections.emptyList());
         when(assignmentGroupRepository.findAssignmentGroupsByCourseId(101)).thenReturn(Collections.emptyList());
 
         // Act
@@ -393,10 +388,8 @@ class DashboardServiceTest {
         Enrollment enrollment = createEnrollment(101, 85.0, "B");
         List<Assignment> assignments = createAssignments(101);
 
-        when(courseRepository.findAllActiveCourses()).thenReturn(List.of(course));
-        when(enrollmentRepository.findAllEnrollments()).thenReturn(List.of(enrollment));
-        when(assignmentRepository.findAssignmentsByCourseId(101)).thenReturn(assignments);
-        when(submissionRepository.findSubmissionsByCourseId(101)).thenReturn(Collections.emptyList());
+        when(courseRepository.findActiveCoursesWithEnrollments()).thenReturn(withEnrollments(List.of(course), List.of(enrollment)));
+        when(assignmentRepository.findAssignmentsWithSubmissions(101)).thenReturn(withSubmissions(assignments, Collections.emptyList()));
         when(assignmentGroupRepository.findAssignmentGroupsByCourseId(101)).thenReturn(createAssignmentGroups(101));
 
         // Act
@@ -415,8 +408,305 @@ class DashboardServiceTest {
         }
     }
 
+    @Test
+    void shouldNotDeadlockUnderConcurrentDashboardLoads() {
+        // Arrange - 50 concurrent loads x 5 courses far exceed the 20 pool threads
+        List<Course> courses = new ArrayList<>();
+        List<Enrollment> enrollments = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            courses.add(createCourse(String.valueOf(100 + i), "Course " + i, "C" + i));
+            enrollments.add(createEnrollment(100 + i, 80.0 + i, "B"));
+        }
+
+        when(courseRepository.findActiveCoursesWithEnrollments()).thenAnswer(inv -> slow(withEnrollments(courses, enrollments)));
+        when(assignmentRepository.findAssignmentsWithSubmissions(any()))
+                .thenAnswer(inv -> slow(withSubmissions(createAssignments(inv.getArgument(0)), createSubmissions())));
+        when(assignmentGroupRepository.findAssignmentGroupsByCourseId(any()))
+                .thenAnswer(inv -> slow(createAssignmentGroups(inv.getArgument(0))));
+
+        ExecutorService callers = Executors.newFixedThreadPool(50);
+        try {
+            // Act
+            List<DashboardData> results = assertTimeoutPreemptively(Duration.ofSeconds(30), () -> {
+                List<Future<DashboardData>> futures = new ArrayList<>();
+                for (int i = 0; i < 50; i++) {
+                    futures.add(callers.submit(() -> dashboardService.getDashboardData()));
+                }
+                List<DashboardData> loaded = new ArrayList<>();
+                for (Future<DashboardData> future : futures) {
+                    loaded.add(future.get());
+                }
+                return loaded;
+            });
+
+            // Assert
+            assertThat(results).hasSize(50);
+            assertThat(results).allSatisfy(data -> assertThat(data.courseCards).hasSize(5));
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    void shouldRenderPartialDashboardWhenBudgetIsExceeded() {
+        // Arrange - course 102 takes far longer than the budget
+        dashboardService.setBudgetMillis(300);
+        List<Course> courses = List.of(
+                createCourse("101", "Data Structures", "CS2021"),
+                createCourse("102", "OOP", "CC2008")
+        );
+
+        when(courseRepository.findActiveCoursesWithEnrollments()).thenReturn(withEnrollments(courses, List.of(
+                createEnrollment(101, 85.0, "B"),
+                createEnrollment(102, 90.0, "A")
+        )));
+        when(assignmentRepository.findAssignmentsWithSubmissions(101))
+                .thenReturn(withSubmissions(createAssignments(101), createSubmissions()));
+        when(assignmentRepository.findAssignmentsWithSubmissions(102)).thenAnswer(inv -> {
+            Thread.sleep(3000);
+            return withSubmissions(createAssignments(102), createSubmissions());
+        });
+        when(assignmentGroupRepository.findAssignmentGroupsByCourseId(any())).thenReturn(createAssignmentGroups(101));
+
+        // Act
+        long start = System.nanoTime();
+        DashboardData result = dashboardService.getDashboardData();
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        // Assert
+        assertThat(elapsedMillis).isLessThan(2000);
+        assertThat(result.partial).isTrue();
+        assertThat(result.courseCards).hasSize(2);
+        assertThat(result.courseCards.get(0).status).isEqualTo(CourseCardData.STATUS_FRESH);
+        assertThat(result.courseCards.get(1).status).isEqualTo(CourseCardData.STATUS_LOADING);
+        assertThat(result.courseCards.get(1).courseWithGrades.enrollment.currentScore).isEqualTo(90.0);
+    }
+
+    @Test
+    void shouldTakeUpcomingAssignmentsFromPlannerEvenForLateCourses() {
+        // Arrange - course 102 misses the budget, but the planner already knows its upcoming work
+        dashboardService.setBudgetMillis(300);
+        UpcomingRepository upcomingRepository = mock(UpcomingRepository.class);
+        dashboardService.setUpcomingRepository(upcomingRepository);
+        List<Course> courses = List.of(
+                createCourse("101", "Data Structures", "CS2021"),
+                createCourse("102", "OOP", "CC2008")
+        );
+        LocalDateTime now = LocalDateTime.now();
+        when(upcomingRepository.findUpcomingAssignments(7)).thenReturn(List.of(
+                createAssignmentWithDueDate(21, 102, "OOP Quiz", 20.0, 1, now.plusDays(1)),
+                createAssignmentWithDueDate(11, 101, "Graph Lab", 50.0, 1, now.plusDays(2))
+        ));
+        when(courseRepository.findActiveCoursesWithEnrollments()).thenReturn(withEnrollments(courses, List.of(
+                createEnrollment(101, 85.0, "B"),
+                createEnrollment(102, 90.0, "A")
+        )));
+        when(assignmentRepository.findAssignmentsWithSubmissions(101))
+                .thenReturn(withSubmissions(createAssignments(101), createSubmissions()));
+        when(assignmentRepository.findAssignmentsWithSubmissions(102)).thenAnswer(inv -> {
+            Thread.sleep(3000);
+            return withSubmissions(createAssignments(102), createSubmissions());
+        });
+        when(assignmentGroupRepository.findAssignmentGroupsByCourseId(any())).thenReturn(createAssignmentGroups(101));
+
+        // Act
+        DashboardData result = dashboardService.getDashboardData();
+
+        // Assert - per-course assignment downloads no longer decide what is upcoming
+        assertThat(result.courseCards.get(0).upcomingAssignments).extracting(a -> a.name).containsExactly("Graph Lab");
+        assertThat(result.courseCards.get(1).status).isEqualTo(CourseCardData.STATUS_LOADING);
+        assertThat(result.courseCards.get(1).upcomingAssignments).extracting(a -> a.name).containsExactly("OOP Quiz");
+        assertThat(result.upcomingAssignments).extracting(a -> a.name).containsExactly("OOP Quiz", "Graph Lab");
+        assertThat(result.summary.upcomingAssignments).isEqualTo(2);
+    }
+
+    @Test
+    void shouldListPlannerItemsEvenForCoursesWithoutCard() {
+        // Arrange - course 102 fails and has no earlier card, so it is left off the dashboard
+        UpcomingRepository upcomingRepository = mock(UpcomingRepository.class);
+        dashboardService.setUpcomingRepository(upcomingRepository);
+        LocalDateTime now = LocalDateTime.now();
+        when(upcomingRepository.findUpcomingAssignments(7)).thenReturn(List.of(
+                createAssignmentWithDueDate(21, 102, "OOP Quiz", 20.0, 1, now.plusDays(1)),
+                createAssignmentWithDueDate(11, 101, "Graph Lab", 50.0, 1, now.plusDays(2))
+        ));
+        when(courseRepository.findActiveCoursesWithEnrollments()).thenReturn(withEnrollments(
+                List.of(createCourse("101", "Data Structures", "CS2021"), createCourse("102", "OOP", "CC2008")),
+                List.of(createEnrollment(101, 85.0, "B"), createEnrollment(102, 90.0, "A"))));
+        when(assignmentRepository.findAssignmentsWithSubmissions(101))
+                .thenReturn(withSubmissions(createAssignments(101), createSubmissions()));
+        when(assignmentRepository.findAssignmentsWithSubmissions(102)).thenThrow(new IllegalStateException("Canvas down"));
+        when(assignmentGroupRepository.findAssignmentGroupsByCourseId(any())).thenReturn(createAssignmentGroups(101));
+
+        // Act
+        DashboardData result = dashboardService.getDashboardData();
+
+        // Assert - the global list is the planner's, not a merge of the cards that made it
+        assertThat(result.courseCards).hasSize(1);
+        assertThat(result.upcomingAssignments).extracting(a -> a.name).containsExactly("OOP Quiz", "Graph Lab");
+        assertThat(result.courseCards.get(0).upcomingAssignments).extracting(a -> a.name).containsExactly("Graph Lab");
+    }
+
+    @Test
+    void shouldPredictCardsWithPlannerItemsWhenPlannerArrivesLast() {
+        // Arrange - the course loads at once, the planner only afterwards
+        UpcomingRepository upcomingRepository = mock(UpcomingRepository.class);
+        dashboardService.setUpcomingRepository(upcomingRepository);
+        PredictionService predictionService = mock(PredictionService.class);
+        dashboardService.setPredictionService(predictionService);
+        List<List<String>> predictedWith = Collections.synchronizedList(new ArrayList<>());
+        when(predictionService.predictCourse(any(), any())).thenAnswer(inv -> {
+            CourseCardData card = inv.getArgument(0);
+            predictedWith.add(card.upcomingAssignments.stream().map(a -> a.name).collect(Collectors.toList()));
+            return new PredictionData();
+        });
+        when(upcomingRepository.findUpcomingAssignments(7)).thenAnswer(inv -> {
+            Thread.sleep(300);
+            return List.of(createAssignmentWithDueDate(11, 101, "Graph Lab", 50.0, 1, LocalDateTime.now().plusDays(2)));
+        });
+        when(courseRepository.findActiveCoursesWithEnrollments()).thenReturn(withEnrollments(
+                List.of(createCourse("101", "Data Structures", "CS2021")), List.of(createEnrollment(101, 85.0, "B"))));
+        when(assignmentRepository.findAssignmentsWithSubmissions(101))
+                .thenReturn(withSubmissions(createAssignments(101), createSubmissions()));
+        when(assignmentGroupRepository.findAssignmentGroupsByCourseId(101)).thenReturn(createAssignmentGroups(101));
+
+        // Act
+        DashboardData result = dashboardService.getDashboardData();
+
+        // Assert - predicted once, with the list the card is shown with
+        assertThat(result.courseCards.get(0).upcomingAssignments).extracting(a -> a.name).containsExactly("Graph Lab");
+        assertThat(result.courseCards.get(0).prediction).isNotNull();
+        assertThat(predictedWith).containsExactly(List.of("Graph Lab"));
+    }
+
+    @Test
+    void shouldKeepBulkLoadWithinBudget() {
+        // Arrange - the bulk query takes far longer than the budget
+        dashboardService.setBudgetMillis(300);
+        DashboardBulkLoader bulkLoader = mock(DashboardBulkLoader.class);
+        dashboardService.setBulkLoader(bulkLoader);
+        when(bulkLoader.loadActiveCourses()).thenAnswer(inv -> {
+            Thread.sleep(3000);
+            return List.of();
+        });
+        when(courseRepository.findActiveCoursesWithEnrollments()).thenReturn(withEnrollments(
+                List.of(createCourse("101", "Data Structures", "CS2021")), List.of(createEnrollment(101, 85.0, "B"))));
+
+        // Act
+        long start = System.nanoTime();
+        DashboardData result = dashboardService.getDashboardData();
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        // Assert - course shown as loading, no per-course requests started
+        assertThat(elapsedMillis).isLessThan(2000);
+        assertThat(result.partial).isTrue();
+        assertThat(result.courseCards).hasSize(1);
+        assertThat(result.courseCards.get(0).status).isEqualTo(CourseCardData.STATUS_LOADING);
+        assertThat(result.summary.overallPercentage).isEqualTo(85.0);
+        verifyNoInteractions(assignmentRepository, assignmentGroupRepository);
+    }
+
+    @Test
+    void shouldShowLastKnownCardsWhenCourseListMissesBudget() {
+        // Arrange - a first request loads normally, the second one's course list hangs
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("42", "test-token", List.of()));
+        dashboardService.setBudgetMillis(300);
+        when(courseRepository.findActiveCoursesWithEnrollments())
+                .thenReturn(withEnrollments(List.of(createCourse("101", "Data Structures", "CS2021")),
+                        List.of(createEnrollment(101, 85.0, "B"))))
+                .thenAnswer(inv -> {
+                    Thread.sleep(3000);
+                    return List.of();
+                });
+        when(assignmentRepository.findAssignmentsWithSubmissions(101))
+                .thenReturn(withSubmissions(createAssignments(101), createSubmissions()));
+        when(assignmentGroupRepository.findAssignmentGroupsByCourseId(101)).thenReturn(createAssignmentGroups(101));
+
+        try {
+            dashboardService.getDashboardData();
+
+            // Act
+            long start = System.nanoTime();
+            DashboardData result = dashboardService.getDashboardData();
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+            // Assert - the course list is awaited only within the budget
+            assertThat(elapsedMillis).isLessThan(2000);
+            assertThat(result.partial).isTrue();
+            assertThat(result.courseCards).hasSize(1);
+            assertThat(result.courseCards.get(0).status).isEqualTo(CourseCardData.STATUS_STALE);
+            assertThat(result.courseCards.get(0).columns).isNull(); // Only fresh cards carry their columns
+            assertThat(result.summary.overallPercentage).isEqualTo(85.0);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    @Test
+    void shouldNotFetchCourseListAfterBulkLoadMissedBudget() {
+        // Arrange - neither the bulk query nor the course list make it within the budget
+        dashboardService.setBudgetMillis(300);
+        DashboardBulkLoader bulkLoader = mock(DashboardBulkLoader.class);
+        dashboardService.setBulkLoader(bulkLoader);
+        when(bulkLoader.loadActiveCourses()).thenAnswer(inv -> {
+            Thread.sleep(3000);
+            return List.of();
+        });
+        when(courseRepository.findActiveCoursesWithEnrollments()).thenAnswer(inv -> {
+            Thread.sleep(3000);
+            return List.of(createCourse("101", "Data Structures", "CS2021"));
+        });
+
+        // Act
+        long start = System.nanoTime();
+        DashboardData result = dashboardService.getDashboardData();
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        // Assert - the budget holds; there is nothing to show yet
+        assertThat(elapsedMillis).isLessThan(2000);
+        assertThat(result.partial).isTrue();
+        assertThat(result.courseCards).isEmpty();
+    }
+
+    @Test
+    void shouldFallBackToPerCourseRequestsWhenBulkLoadFails() {
+        DashboardBulkLoader bulkLoader = mock(DashboardBulkLoader.class);
+        dashboardService.setBulkLoader(bulkLoader);
+        when(bulkLoader.loadActiveCourses()).thenThrow(new IllegalStateException("Canvas GraphQL error"));
+        when(courseRepository.findActiveCoursesWithEnrollments()).thenReturn(withEnrollments(
+                List.of(createCourse("101", "Data Structures", "CS2021")), List.of(createEnrollment(101, 85.0, "B"))));
+        when(assignmentRepository.findAssignmentsWithSubmissions(101))
+                .thenReturn(withSubmissions(createAssignments(101), createSubmissions()));
+        when(assignmentGroupRepository.findAssignmentGroupsByCourseId(101)).thenReturn(createAssignmentGroups(101));
+
+        DashboardData result = dashboardService.getDashboardData();
+
+        assertThat(result.partial).isFalse();
+        assertThat(result.courseCards).hasSize(1);
+        assertThat(result.courseCards.get(0).status).isEqualTo(CourseCardData.STATUS_FRESH);
+    }
+
+    private static <T> T slow(T value) throws InterruptedException {
+        Thread.sleep(10);
+        return value;
+    }
+
     // Helper methods to create test data
 
+    /**
+     * Courses as returned with include[]=total_scores: each one carries its own enrollment.
+     */
+    private static List<Course> withEnrollments(List<Course> courses, List<Enrollment> enrollments) {
+        for (Course course : courses) {
+            course.enrollment = enrollments.stream()
+                    .filter(e -> String.valueOf(e.courseId).equals(course.id))
+                    .findFirst()
+                    .orElse(null);
+        }
+        return courses;
+    }
+
     private Course createCourse(String id, String name, String code) {
         Course course = new Course();
         course.id = id;
@@ -461,6 +751,19 @@ class DashboardServiceTest {
         return assignment;
     }
 
+    /**
+     * Assignments as returned with include[]=submission: each one carries its own submission.
+     */
+    private static List<Assignment> withSubmissions(List<Assignment> assignments, List<Submission> submissions) {
+        for (Assignment assignment : assignments) {
+            assignment.submission = submissions.stream()
+                    .filter(s -> s.assignmentId.equals(assignment.id))
+                    .findFirst()
+                    .orElse(null);
+        }
+        return assignments;
+    }
+
     private Submission createSubmission(Integer assignmentId, Double score, LocalDateTime gradedAt) {
         Submission submission = new Submission();
         submission.assignmentId = assignmentId;
@@ -0,0 +1,62 @@
+package com.bestprograteam.canvas_dashboard.model.services;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark for the final-grade simulation (not part of the unit test run).
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ *           -Dexec.mainClass=com.bestprograteam.canvas_dashboard.model.services.GradeSimulatorBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GradeSimulatorBenchmark {
+
+    @Param({"10000", "50000"})
+    public int trials;
+
+    @Param({"20", "200"})
+    public int ungradedAssignments;
+
+    private GradeSimulator simulator;
+    private double[] points;
+    private double[] means;
+    private double[] stdDevs;
+
+    @Setup
+    public void setUp() {
+        // Budget high enough that every trial runs; we measure throughput, not the cut-off
+        simulator = new GradeSimulator(ForkJoinPool.commonPool(), trials, 60_000);
+        SplittableRandom random = new SplittableRandom(7);
+        points = new double[ungradedAssignments];
+        means = new double[ungradedAssignments];
+        stdDevs = new double[ungradedAssignments];
+        for (int i = 0; i < ungradedAssignments; i++) {
+            points[i] = 10 + random.nextInt(90);
+            means[i] = 60 + random.nextDouble() * 35;
+            stdDevs[i] = 5 + random.nextDouble() * 10;
+        }
+    }
+
+    @Benchmark
+    public double simulate() {
+        double possible = Arrays.stream(points).sum() * 2;
+        double[] outcomes = simulator.simulate(possible * 0.4, possible, points, means, stdDevs, 42L);
+        return GradeSimulator.percentile(outcomes, 0.5);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(GradeSimulatorBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -1,5 +1,6 @@
 package com.bestprograteam.canvas_dashboard.model.services;
 
+import com.bestprograteam.canvas_dashboard.model.adapters.CanvasTimestamps;
 import com.bestprograteam.canvas_dashboard.model.dto.*;
 import com.bestprograteam.canvas_dashboard.model.entities.*;
 import org.junit.jupiter.api.BeforeEach;
@@ -12,6 +13,7 @@ import java.time.LocalDateTime;
 import java.util.*;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
 
 @ExtendWith(MockitoExtension.class)
 class PredictionServiceTest {
@@ -362,6 +364,144 @@ class PredictionServiceTest {
         assertThat(result.predictedScore).isBetween(80.0, 85.0);
     }
 
+    @Test
+    void shouldSimulateFinalGradeDistribution() {
+        // Arrange - 5 graded + 2 ungraded assignments
+        DashboardData dashboardData = createDashboardDataWithUpcomingAssignments();
+
+        // Act
+        PredictionData result = predictionService.calculatePredictions(dashboardData);
+
+        // Assert
+        assertThat(result.isDistributionAvailable()).isTrue();
+        assertThat(result.p10).isLessThanOrEqualTo(result.p50);
+        assertThat(result.p50).isLessThanOrEqualTo(result.p90);
+        assertThat(result.p10).isBetween(0.0, 100.0);
+        assertThat(result.p90).isBetween(0.0, 100.0);
+        assertThat(result.letterProbabilities).hasSize(12).containsKey(result.predictedLetterGrade);
+        assertThat(result.letterProbabilities.values().stream().mapToDouble(Double::doubleValue).sum())
+                .isCloseTo(1.0, within(1e-9));
+    }
+
+    @Test
+    void shouldKeepOnlineRegressionEqualToBatchFitAcrossRegradesAndRestore() {
+        long day = 86_400_000L;
+        double[] xs = {0, 1, 3, 4, 7, 9};
+        double[] ys = {70, 74, 73, 80, 85, 84};
+
+        RegressionState state = new RegressionState();
+        for (int i = 0; i < xs.length; i++) {
+            state.observe(i + 1, (long) (xs[i] * day), 50.0); // Graded once...
+        }
+        for (int i = 0; i < xs.length; i++) {
+            assertThat(state.observe(i + 1, (long) (xs[i] * day), ys[i])).isTrue(); // ...then regraded
+        }
+        assertThat(state.observe(1, 0, ys[0])).isFalse(); // Same grade again is a no-op
+
+        // Batch least squares over the final grades
+        double n = xs.length, sumX = 0, sumY = 0, sumXY = 0, sumX2 = 0;
+        for (int i = 0; i < xs.length; i++) {
+            sumX += xs[i];
+            sumY += ys[i];
+            sumXY += xs[i] * ys[i];
+            sumX2 += xs[i] * xs[i];
+        }
+        double slope = (n * sumXY - sumX * sumY) / (n * sumX2 - sumX * sumX);
+        double intercept = (sumY - slope * sumX) / n;
+
+        assertThat(state.count()).isEqualTo(6);
+        assertThat(state.slope()).isCloseTo(slope, within(1e-9));
+        assertThat(state.predict(12 * day)).isCloseTo(slope * 12 + intercept, within(1e-9));
+
+        // Merging split states gives the same fit
+        RegressionState first = new RegressionState();
+        RegressionState second = new RegressionState();
+        for (int i = 0; i < xs.length; i++) {
+            (i % 2 == 0 ? first : second).observe(i + 1, (long) (xs[i] * day), ys[i]);
+        }
+        RegressionState merged = RegressionState.merge(List.of(first, second));
+        assertThat(merged.predict(12 * day)).isCloseTo(slope * 12 + intercept, within(1e-9));
+    }
+
+    @Test
+    void shouldDropGradesThatLeaveTheCardFromThePersistedRegression() {
+        RegressionStateStore store = new RegressionStateStore(720, 100);
+        PredictionService service = new PredictionService(store, new GradeSimulator(1000, 150));
+        CourseCardData card = createDashboardDataWithScores(60, 70, 80, 90, 95, 99).courseCards.get(0);
+        card.courseWithGrades = new CourseWithGrades(course("1"), enrollment(80.0));
+        card.columns = CourseColumns.ofGrades(card.recentGrades, CanvasTimestamps::toEpochMillis);
+
+        service.predictCourse(card, "user");
+        assertThat(store.state("user", "1").count()).isEqualTo(6);
+
+        // Assignment 6 gets excused and is no longer graded
+        card.recentGrades = new ArrayList<>(card.recentGrades.subList(0, 5));
+        card.columns = CourseColumns.ofGrades(card.recentGrades, CanvasTimestamps::toEpochMillis);
+        service.predictCourse(card, "user");
+
+        RegressionState fresh = new RegressionState();
+        for (RecentGrade rg : card.recentGrades) {
+            fresh.observe(rg.assignment.id, CanvasTimestamps.toEpochMillis(rg.submission.gradedAt),
+                    rg.submission.score / rg.assignment.pointsPossible * 100);
+        }
+        RegressionState persisted = store.state("user", "1");
+        assertThat(persisted.count()).isEqualTo(5);
+        assertThat(persisted.slope()).isCloseTo(fresh.slope(), within(1e-9));
+        assertThat(persisted.meanY()).isCloseTo(fresh.meanY(), within(1e-9));
+    }
+
+    @Test
+    void shouldFeedEveryGradedSubmissionIntoTheRegression() {
+        RegressionStateStore store = new RegressionStateStore(720, 100);
+        PredictionService service = new PredictionService(store, new GradeSimulator(1000, 150));
+        CourseCardData card = createDashboardDataWithScores(50, 55, 60, 70, 80, 90, 95, 99).courseCards.get(0);
+        card.courseWithGrades = new CourseWithGrades(course("1"), enrollment(80.0));
+        // The card lists its five most recent grades; the columns hold all eight
+        card.columns = CourseColumns.ofGrades(card.recentGrades, CanvasTimestamps::toEpochMillis);
+        card.recentGrades = new ArrayList<>(card.recentGrades.subList(3, 8));
+
+        service.predictCourse(card, "user");
+        service.predictCourse(card, "user");
+
+        assertThat(store.state("user", "1").count()).isEqualTo(8);
+    }
+
+    @Test
+    void shouldOnlyMemoizePredictionsWhoseSimulationRanAllTrials() {
+        CourseCardData card = createDashboardDataWithScores(60, 70, 80, 90, 95).courseCards.get(0);
+        card.courseWithGrades = new CourseWithGrades(course("1"), enrollment(80.0));
+        card.upcomingAssignments = List.of(new Assignment(10, 1, "Final", LocalDateTime.now().plusDays(5), 100.0, 1, "published"));
+
+        // No budget at all: not a single chunk of trials runs
+        PredictionService cutShort = new PredictionService(new RegressionStateStore(720, 100), new GradeSimulator(1000, 0));
+        PredictionData first = cutShort.predictCourse(card, "user");
+        assertThat(first.simulationCutShort).isTrue();
+        assertThat(cutShort.predictCourse(card, "user")).isNotSameAs(first);
+
+        PredictionService complete = new PredictionService(new RegressionStateStore(720, 100), new GradeSimulator(1000, 60_000));
+        PredictionData memoized = complete.predictCourse(card, "user");
+        assertThat(memoized.simulationCutShort).isFalse();
+        assertThat(memoized.simulatedTrials).isEqualTo(1000);
+        assertThat(complete.predictCourse(card, "user")).isSameAs(memoized);
+    }
+
+    @Test
+    void shouldNotShareStateOrPredictionsBetweenCardsWithoutCourseId() {
+        RegressionStateStore store = new RegressionStateStore(720, 100);
+        PredictionService service = new PredictionService(store, new GradeSimulator(1000, 150));
+        CourseCardData rising = createDashboardDataWithScores(60, 70, 80, 90, 95).courseCards.get(0);
+        CourseCardData falling = createDashboardDataWithScores(95, 90, 80, 70, 60).courseCards.get(0);
+        rising.courseWithGrades = new CourseWithGrades(course(null), enrollment(80.0));
+        falling.courseWithGrades = new CourseWithGrades(course(null), enrollment(80.0));
+
+        service.predictCourse(rising, "user");
+        PredictionData second = service.predictCourse(falling, "user");
+
+        // Same as an anonymous (throwaway-state, unmemoized) prediction of that card alone
+        assertThat(second.predictedScore).isEqualTo(new PredictionService().predictCourse(falling, null).predictedScore);
+        assertThat(store.state("user", "card-0").count()).isZero();
+    }
+
     // Helper methods to create test data
 
     private DashboardData createDashboardDataWithGrades(int numGrades) {
@@ -516,4 +656,16 @@ class PredictionServiceTest {
         dashboardData.courseCards = courseCards;
         return dashboardData;
     }
+
+    private static Course course(String id) {
+        Course course = new Course();
+        course.id = id;
+        return course;
+    }
+
+    private static Enrollment enrollment(double currentScore) {
+        Enrollment enrollment = new Enrollment();
+        enrollment.currentScore = currentScore;
+        return enrollment;
+    }
 }
@@ -0,0 +1,91 @@
+package com.bestprograteam.canvas_dashboard.model.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TopKTest {
+
+    private static final Comparator<String> BY_LENGTH = Comparator.comparingInt(String::length);
+
+    @Test
+    void shouldKeepFirstKInResultOrder() {
+        TopK top = new TopK(3, (a, b) -> Integer.compare(b, a));
+        for (int value : new int[]{5, 1, 9, 7, 3, 8}) {
+            top.offer(value);
+        }
+
+        assertThat(top.size()).isEqualTo(3);
+        assertThat(top.toArray()).containsExactly(9, 8, 7);
+    }
+
+    @Test
+    void shouldKeepOfferOrderForTies() {
+        // Rank by tens only, so 21, 20 and 22 tie
+        TopK top = new TopK(3, (a, b) -> Integer.compare(a / 10, b / 10));
+        for (int value : new int[]{35, 21, 20, 22, 5}) {
+            top.offer(value);
+        }
+
+        assertThat(top.toArray()).containsExactly(5, 21, 20);
+    }
+
+    @Test
+    void shouldKeepNothingForZeroK() {
+        TopK top = new TopK(0, Integer::compare);
+        top.offer(1);
+        top.offer(2);
+
+        assertThat(top.size()).isZero();
+        assertThat(top.toArray()).isEmpty();
+        assertThatThrownBy(() -> new TopK(-1, Integer::compare)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldMatchSortAndLimit() {
+        int[] values = new int[200];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (i * 7919) % 101; // Many duplicates, no particular order
+        }
+        TopK top = new TopK(10, Integer::compare);
+        for (int value : values) {
+            top.offer(value);
+        }
+
+        assertThat(top.toArray()).containsExactly(IntStream.of(values).sorted().limit(10).toArray());
+    }
+
+    @Test
+    void shouldMergeSortedListsUpToLimit() {
+        List<List<Integer>> lists = List.of(List.of(1, 4, 9), List.of(2, 3, 10), List.of(5));
+
+        assertThat(TopK.mergeSorted(lists, Comparator.<Integer>naturalOrder(), 5)).containsExactly(1, 2, 3, 4, 5);
+        assertThat(TopK.mergeSorted(lists, Comparator.<Integer>naturalOrder(), 100)).containsExactly(1, 2, 3, 4, 5, 9, 10);
+        assertThat(TopK.mergeSorted(lists, Comparator.<Integer>naturalOrder(), 0)).isEmpty();
+    }
+
+    @Test
+    void shouldMergeTiesInListOrder() {
+        List<List<String>> lists = List.of(List.of("b1", "ccc"), List.of("a1", "b2"), List.of("a2"));
+
+        // Equal lengths: the element of the earlier list comes first, each list keeps its own order
+        assertThat(TopK.mergeSorted(lists, BY_LENGTH, 4)).containsExactly("b1", "a1", "b2", "a2");
+    }
+
+    @Test
+    void shouldSkipEmptyAndNullLists() {
+        List<List<Integer>> lists = new ArrayList<>();
+        lists.add(List.of());
+        lists.add(null);
+        lists.add(List.of(3, 4));
+
+        assertThat(TopK.mergeSorted(lists, Comparator.<Integer>naturalOrder(), 10)).containsExactly(3, 4);
+        assertThat(TopK.mergeSorted(List.<List<Integer>>of(), Comparator.<Integer>naturalOrder(), 10)).isEmpty();
+    }
+}
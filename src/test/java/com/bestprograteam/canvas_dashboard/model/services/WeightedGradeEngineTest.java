@@ -0,0 +1,78 @@
+package com.bestprograteam.canvas_dashboard.model.services;
+
+import com.bestprograteam.canvas_dashboard.model.adapters.CanvasTimestamps;
+import com.bestprograteam.canvas_dashboard.model.dto.CategoryBreakdown;
+import com.bestprograteam.canvas_dashboard.model.dto.CourseColumns;
+import com.bestprograteam.canvas_dashboard.model.entities.Assignment;
+import com.bestprograteam.canvas_dashboard.model.entities.AssignmentGroup;
+import com.bestprograteam.canvas_dashboard.model.entities.Submission;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class WeightedGradeEngineTest {
+
+    private static final List<CategoryBreakdown> GROUPS = List.of(
+            new CategoryBreakdown(new AssignmentGroup(1, 1, "Exams", 1, 60.0), null, null, null, null, null),
+            new CategoryBreakdown(new AssignmentGroup(2, 1, "Homework", 2, 40.0), null, null, null, null, null),
+            new CategoryBreakdown(new AssignmentGroup(3, 1, "Quizzes", 3, 20.0), null, null, null, null, null));
+
+    private static final List<Assignment> ASSIGNMENTS = List.of(
+            new Assignment(10, 1, "Exam 1", null, 100.0, 1, "published"),
+            new Assignment(11, 1, "Exam 2", null, 100.0, 1, "published"),
+            new Assignment(20, 1, "Homework 1", null, 10.0, 2, "published"),
+            new Assignment(21, 1, "Homework 2", null, 10.0, 2, "published"),
+            new Assignment(30, 1, "Quiz 1", null, 10.0, 3, "published"));
+
+    @Test
+    void shouldWeightOnlyGroupsWithGradedWork() {
+        WeightedGradeEngine engine = WeightedGradeEngine.of(GROUPS, CourseColumns.of(ASSIGNMENTS, gradedSubmissions()::get, CanvasTimestamps::toEpochMillis));
+
+        // Quizzes has nothing graded, so only 60 + 40 of the weight counts
+        assertThat(engine.isWeighted()).isTrue();
+        assertThat(engine.grade()).isCloseTo((60 * 0.8 + 40 * 0.95), within(1e-9));
+    }
+
+    @Test
+    void shouldUpdateGradeIncrementallyForWhatIfScores() {
+        Map<Integer, Submission> submissions = gradedSubmissions();
+        WeightedGradeEngine engine = WeightedGradeEngine.of(GROUPS, CourseColumns.of(ASSIGNMENTS, submissions::get, CanvasTimestamps::toEpochMillis));
+
+        assertThat(engine.whatIf(11, 100.0)).isCloseTo((60 * 0.9 + 40 * 0.95), within(1e-9));
+        assertThat(engine.whatIf(30, 5.0)).isCloseTo((60 * 0.9 + 40 * 0.95 + 20 * 0.5) / 120 * 100, within(1e-9));
+
+        // Same result as building the engine from scratch with those scores
+        submissions.put(11, new Submission(11, 100.0, "graded", LocalDateTime.now(), false));
+        submissions.put(30, new Submission(30, 5.0, "graded", LocalDateTime.now(), false));
+        WeightedGradeEngine rebuilt = WeightedGradeEngine.of(GROUPS, CourseColumns.of(ASSIGNMENTS, submissions::get, CanvasTimestamps::toEpochMillis));
+        assertThat(engine.grade()).isCloseTo(rebuilt.grade(), within(1e-9));
+    }
+
+    @Test
+    void shouldRestoreRealScoresOnReset() {
+        WeightedGradeEngine engine = WeightedGradeEngine.of(GROUPS, CourseColumns.of(ASSIGNMENTS, gradedSubmissions()::get, CanvasTimestamps::toEpochMillis));
+        engine.whatIf(11, 100.0);
+        engine.whatIf(30, 5.0);
+
+        engine.reset(11);
+        engine.reset(30);
+
+        assertThat(engine.grade()).isCloseTo((60 * 0.8 + 40 * 0.95), within(1e-9));
+        assertThat(engine.whatIf(99, 1.0)).isNaN();
+        assertThat(engine.knows(99)).isFalse();
+    }
+
+    private static Map<Integer, Submission> gradedSubmissions() {
+        Map<Integer, Submission> submissions = new HashMap<>();
+        submissions.put(10, new Submission(10, 80.0, "graded", LocalDateTime.now(), false));
+        submissions.put(20, new Submission(20, 9.0, "graded", LocalDateTime.now(), false));
+        submissions.put(21, new Submission(21, 10.0, "graded", LocalDateTime.now(), false));
+        return submissions;
+    }
+}
@@ -0,0 +1,120 @@
+package com.bestprograteam.canvas_dashboard.model.services;
+
+import com.bestprograteam.canvas_dashboard.model.adapters.CanvasTimestamps;
+import com.bestprograteam.canvas_dashboard.model.dto.CategoryBreakdown;
+import com.bestprograteam.canvas_dashboard.model.dto.CourseCardData;
+import com.bestprograteam.canvas_dashboard.model.dto.CourseColumns;
+import com.bestprograteam.canvas_dashboard.model.dto.CourseWithGrades;
+import com.bestprograteam.canvas_dashboard.model.dto.DashboardData;
+import com.bestprograteam.canvas_dashboard.model.dto.WhatIfResult;
+import com.bestprograteam.canvas_dashboard.model.entities.Assignment;
+import com.bestprograteam.canvas_dashboard.model.entities.AssignmentGroup;
+import com.bestprograteam.canvas_dashboard.model.entities.Course;
+import com.bestprograteam.canvas_dashboard.model.entities.Enrollment;
+import com.bestprograteam.canvas_dashboard.model.entities.Submission;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class WhatIfServiceTest {
+
+    // Exams 60% (80/100 graded, Exam 2 open), Homework 40% (19/20): engine grade 86
+    private static final double ENGINE_GRADE = 60 * 0.8 + 40 * 0.95;
+
+    private final WhatIfService whatIfService = new WhatIfService(60, 100);
+
+    @Test
+    void shouldMoveCourseAndSemesterGradeWithWhatIfScore() {
+        whatIfService.startSession("user", dashboard(weightedCard(ENGINE_GRADE), otherCard(70.0)));
+
+        WhatIfResult result = whatIfService.whatIf("user", "1", 11, 100.0);
+
+        assertThat(result.courseGrade).isCloseTo(92.0, within(1e-9));
+        assertThat(result.courseLetterGrade).isEqualTo("A-");
+        assertThat(result.semesterGrade).isCloseTo((92.0 + 70.0) / 2, within(1e-9));
+        assertThat(whatIfService.whatIf("user", "1", 11, null).semesterGrade).isCloseTo(78.0, within(1e-9));
+    }
+
+    @Test
+    void shouldBaseSemesterGradeOnEngineGradeInsteadOfCanvasScore() {
+        // Canvas's current score disagrees with the engine (e.g. muted or rounded)
+        whatIfService.startSession("user", dashboard(weightedCard(50.0), otherCard(70.0)));
+
+        // Resetting an assignment to its real score must not move the semester grade off the engine's baseline
+        WhatIfResult result = whatIfService.whatIf("user", "1", 10, null);
+
+        assertThat(result.courseGrade).isCloseTo(ENGINE_GRADE, within(1e-9));
+        assertThat(result.semesterGrade).isCloseTo((ENGINE_GRADE + 70.0) / 2, within(1e-9));
+    }
+
+    @Test
+    void shouldIgnoreUnknownUsersCoursesAndAssignments() {
+        whatIfService.startSession("user", dashboard(weightedCard(ENGINE_GRADE), otherCard(70.0)));
+
+        assertThat(whatIfService.whatIf("other", "1", 11, 100.0)).isNull();
+        assertThat(whatIfService.whatIf("user", "3", 11, 100.0)).isNull();
+        assertThat(whatIfService.whatIf("user", "1", 99, 100.0)).isNull();
+        // The course without columns has no engine to apply a score to
+        assertThat(whatIfService.whatIf("user", "2", 11, 100.0)).isNull();
+    }
+
+    @Test
+    void shouldDropSessionOnInvalidateUser() {
+        whatIfService.startSession("user", dashboard(weightedCard(ENGINE_GRADE), otherCard(70.0)));
+
+        whatIfService.invalidateUser("user");
+
+        assertThat(whatIfService.whatIf("user", "1", 11, 100.0)).isNull();
+    }
+
+    private static DashboardData dashboard(CourseCardData... cards) {
+        DashboardData dashboardData = new DashboardData();
+        dashboardData.courseCards = List.of(cards);
+        return dashboardData;
+    }
+
+    private static CourseCardData weightedCard(double canvasScore) {
+        List<CategoryBreakdown> groups = List.of(
+                new CategoryBreakdown(new AssignmentGroup(1, 1, "Exams", 1, 60.0), null, null, null, null, null),
+                new CategoryBreakdown(new AssignmentGroup(2, 1, "Homework", 2, 40.0), null, null, null, null, null));
+        List<Assignment> assignments = List.of(
+                new Assignment(10, 1, "Exam 1", null, 100.0, 1, "published"),
+                new Assignment(11, 1, "Exam 2", null, 100.0, 1, "published"),
+                new Assignment(20, 1, "Homework 1", null, 10.0, 2, "published"),
+                new Assignment(21, 1, "Homework 2", null, 10.0, 2, "published"));
+        Map<Integer, Submission> submissions = new HashMap<>();
+        submissions.put(10, new Submission(10, 80.0, "graded", LocalDateTime.now(), false));
+        submissions.put(20, new Submission(20, 9.0, "graded", LocalDateTime.now(), false));
+        submissions.put(21, new Submission(21, 10.0, "graded", LocalDateTime.now(), false));
+
+        CourseCardData card = new CourseCardData();
+        card.courseWithGrades = new CourseWithGrades(course("1"), enrollment(canvasScore));
+        card.categoryBreakdown = groups;
+        card.columns = CourseColumns.of(assignments, submissions::get, CanvasTimestamps::toEpochMillis);
+        return card;
+    }
+
+    private static CourseCardData otherCard(double canvasScore) {
+        CourseCardData card = new CourseCardData();
+        card.courseWithGrades = new CourseWithGrades(course("2"), enrollment(canvasScore));
+        return card;
+    }
+
+    private static Course course(String id) {
+        Course course = new Course();
+        course.id = id;
+        return course;
+    }
+
+    private static Enrollment enrollment(double currentScore) {
+        Enrollment enrollment = new Enrollment();
+        enrollment.currentScore = currentScore;
+        return enrollment;
+    }
+}